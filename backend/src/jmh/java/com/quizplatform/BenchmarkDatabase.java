@@ -0,0 +1,42 @@
+package com.quizplatform;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import java.io.IOException;
+import javax.sql.DataSource;
+
+// Embedded PostgreSQL for the benchmarks that need a real database, set up the way TestDatabase sets
+// it up for tests: migrated with the application's Flyway scripts and installed as Main's data source.
+// PostgreSQL refuses to start as root, so those benchmarks have to run as another user.
+public final class BenchmarkDatabase {
+    private static HikariDataSource pool;
+
+    private BenchmarkDatabase() {}
+
+    public static synchronized DataSource start() {
+        if (pool == null) {
+            EmbeddedPostgres postgres;
+            try {
+                postgres = EmbeddedPostgres.builder().start();
+            } catch (IOException e) {
+                throw new RuntimeException("Error starting embedded PostgreSQL", e);
+            }
+            HikariConfig config = new HikariConfig();
+            config.setJdbcUrl(postgres.getJdbcUrl("postgres", "postgres") + "&reWriteBatchedInserts=true");
+            config.setMaximumPoolSize(4);
+            pool = new HikariDataSource(config);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                pool.close();
+                try {
+                    postgres.close();
+                } catch (IOException e) {
+                    // The JVM is exiting; the data directory is temporary anyway
+                }
+            }));
+            Main.migrate(pool);
+            Main.useDataSource(pool);
+        }
+        return pool;
+    }
+}
@@ -0,0 +1,51 @@
+package com.quizplatform.grading;
+
+import com.quizplatform.jmh.Fixtures;
+import com.quizplatform.models.Quiz;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Scoring a submission, which used to be QuizController.calculateScore, and compiling the key
+// that grading reuses from AnswerKeyCache.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnswerKeyBenchmark {
+    @Param({"10", "50", "100", "500"})
+    public int questions;
+
+    private Quiz quiz;
+    private AnswerKey key;
+    private Map<Long, Object> submitted;
+
+    @Setup
+    public void setUp() {
+        quiz = Fixtures.quiz(questions);
+        key = AnswerKey.compile(quiz);
+        submitted = Fixtures.submittedAnswers(quiz);
+    }
+
+    @Benchmark
+    public int grade() {
+        return key.grade(submitted);
+    }
+
+    @Benchmark
+    public AnswerKey compile() {
+        return AnswerKey.compile(quiz);
+    }
+}
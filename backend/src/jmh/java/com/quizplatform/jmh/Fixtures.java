@@ -0,0 +1,105 @@
+package com.quizplatform.jmh;
+
+import com.quizplatform.models.Answer;
+import com.quizplatform.models.Question;
+import com.quizplatform.models.Quiz;
+import com.quizplatform.models.QuizSubmission;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Deterministic quiz graphs for the benchmarks: every fourth question is a true/false question,
+// every fifth a short answer, the rest multiple choice with four options.
+public final class Fixtures {
+    public static final int ANSWERS_PER_QUESTION = 4;
+
+    private Fixtures() {}
+
+    public static Quiz quiz(int questionCount) {
+        Quiz quiz = new Quiz();
+        quiz.setId(42L);
+        quiz.setTitle("Introduction to Distributed Systems - Midterm");
+        quiz.setDescription("Covers consistency models, replication, consensus and failure detection.");
+        quiz.setInstructorId(7L);
+        quiz.setTimeLimit(45);
+        quiz.setIsPublished(true);
+        quiz.setCreatedAt(LocalDateTime.of(2024, 3, 1, 9, 0));
+        quiz.setUpdatedAt(LocalDateTime.of(2024, 3, 2, 17, 30));
+
+        List<Question> questions = new ArrayList<>();
+        for (int q = 1; q <= questionCount; q++) {
+            Question question = new Question();
+            question.setId((long) q);
+            question.setQuizId(quiz.getId());
+            question.setQuestionText("Question " + q + ": which of the following statements about quorum replication with N=" + (q + 2) + " holds?");
+            question.setType(type(q));
+            question.setPoints(1 + q % 3);
+            question.setOrder(q);
+            List<Answer> answers = new ArrayList<>();
+            int options = question.getType() == Question.QuestionType.TRUE_FALSE ? 2 : ANSWERS_PER_QUESTION;
+            for (int a = 1; a <= options; a++) {
+                Answer answer = new Answer();
+                answer.setId(answerId(q, a));
+                answer.setQuestionId(question.getId());
+                answer.setAnswerText(question.getType() == Question.QuestionType.SHORT_ANSWER
+                    ? "Quorum " + a
+                    : "Option " + a + ": reads and writes overlap when R + W > " + (q + a));
+                answer.setIsCorrect(a == 1 + q % options);
+                answer.setAnswerOrder(a);
+                answers.add(answer);
+            }
+            question.setAnswers(answers);
+            questions.add(question);
+        }
+        quiz.setQuestions(questions);
+        return quiz;
+    }
+
+    // Answers as they arrive from the JSON body: IDs as numbers or strings, free text for short answers.
+    // Roughly two thirds are correct.
+    public static Map<Long, Object> submittedAnswers(Quiz quiz) {
+        Map<Long, Object> submitted = new HashMap<>();
+        for (Question question : quiz.getQuestions()) {
+            long q = question.getId();
+            List<Answer> answers = question.getAnswers();
+            Answer chosen = q % 3 == 0 ? answers.get(0) : answers.stream()
+                .filter(answer -> Boolean.TRUE.equals(answer.getIsCorrect()))
+                .findFirst()
+                .orElse(answers.get(0));
+            if (question.getType() == Question.QuestionType.SHORT_ANSWER) {
+                submitted.put(q, "  " + chosen.getAnswerText().toUpperCase() + " ");
+            } else if (q % 2 == 0) {
+                submitted.put(q, chosen.getId().toString());
+            } else {
+                submitted.put(q, chosen.getId().intValue());
+            }
+        }
+        return submitted;
+    }
+
+    public static QuizSubmission submission(Quiz quiz) {
+        QuizSubmission submission = new QuizSubmission();
+        submission.setId(1001L);
+        submission.setQuizId(quiz.getId());
+        submission.setStudentId(314L);
+        submission.setAnswers(submittedAnswers(quiz));
+        submission.setScore(quiz.getQuestions().size());
+        submission.setStartedAt(LocalDateTime.of(2024, 3, 4, 10, 0));
+        submission.setSubmittedAt(LocalDateTime.of(2024, 3, 4, 10, 41));
+        submission.setCompletedAt(LocalDateTime.of(2024, 3, 4, 10, 41));
+        return submission;
+    }
+
+    public static long answerId(int question, int answer) {
+        return question * 10L + answer;
+    }
+
+    private static Question.QuestionType type(int q) {
+        if (q % 5 == 0) {
+            return Question.QuestionType.SHORT_ANSWER;
+        }
+        return q % 4 == 0 ? Question.QuestionType.TRUE_FALSE : Question.QuestionType.MULTIPLE_CHOICE;
+    }
+}
@@ -0,0 +1,164 @@
+package com.quizplatform.repositories;
+
+import com.quizplatform.BenchmarkDatabase;
+import com.quizplatform.jmh.Fixtures;
+import com.quizplatform.models.Answer;
+import com.quizplatform.models.Question;
+import com.quizplatform.models.Quiz;
+import com.quizplatform.models.User;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+// Saving a quiz's questions and answers against an embedded PostgreSQL, through the same counting
+// data source the application uses. batched is QuestionRepository.createAll: one batch of questions,
+// one of answers. perRow is the loop it replaced, one INSERT ... RETURNING per question and per answer.
+// Each invocation runs in its own unit of work and is counted with QueryStats; the statements and
+// round trips per invocation are printed when the trial ends. Latency to a local database is far
+// below a networked one, so the time saved here is a lower bound.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QuestionInsertBenchmark {
+    private static final String INSERT_QUESTION_SQL =
+        "INSERT INTO questions (quiz_id, question_text, question_type, points, question_order) VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_ANSWER_SQL =
+        "INSERT INTO answers (question_id, answer_text, is_correct, answer_order) VALUES (?, ?, ?, ?)";
+
+    @Param({"10", "100"})
+    public int questions;
+
+    private final QuestionRepository repository = new QuestionRepository();
+    private Long quizId;
+    private List<Question> pending;
+    private long invocations;
+    private long statements;
+    private long roundTrips;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkDatabase.start();
+        User instructor = new User();
+        instructor.setEmail("instructor-" + UUID.randomUUID() + "@example.com");
+        instructor.setPassword("hash");
+        instructor.setFirstName("Ada");
+        instructor.setLastName("Lovelace");
+        instructor.setRole(User.UserRole.INSTRUCTOR);
+        Quiz quiz = Fixtures.quiz(0);
+        quiz.setInstructorId(new UserRepository().create(instructor).getId());
+        quizId = new QuizRepository().create(quiz).getId();
+    }
+
+    // Fresh, unsaved questions for every call, built outside the measured time
+    @Setup(Level.Invocation)
+    public void prepareQuestions() {
+        pending = new ArrayList<>();
+        for (Question question : Fixtures.quiz(questions).getQuestions()) {
+            question.setId(null);
+            question.setQuizId(quizId);
+            for (Answer answer : question.getAnswers()) {
+                answer.setId(null);
+                answer.setQuestionId(null);
+            }
+            pending.add(question);
+        }
+    }
+
+    // Keeps the tables the size of one iteration's inserts
+    @TearDown(Level.Iteration)
+    public void deleteQuestions() throws SQLException {
+        try (Connection connection = BenchmarkDatabase.start().getConnection();
+             PreparedStatement answers = connection.prepareStatement(
+                 "DELETE FROM answers WHERE question_id IN (SELECT id FROM questions WHERE quiz_id = ?)");
+             PreparedStatement questionRows = connection.prepareStatement("DELETE FROM questions WHERE quiz_id = ?")) {
+            answers.setLong(1, quizId);
+            answers.executeUpdate();
+            questionRows.setLong(1, quizId);
+            questionRows.executeUpdate();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void printCounts(BenchmarkParams params) {
+        System.out.printf("%n%s, %d questions: %.1f statements, %.1f round trips per invocation%n", params.getBenchmark(),
+            questions, (double) statements / invocations, (double) roundTrips / invocations);
+    }
+
+    @Benchmark
+    public List<Question> batched() {
+        QueryStats stats = QueryStats.measure(() -> repository.createAll(pending));
+        count(stats);
+        return pending;
+    }
+
+    @Benchmark
+    public List<Question> perRow() {
+        QueryStats stats = QueryStats.measure(() -> UnitOfWork.execute(() -> insertPerRow(pending)));
+        count(stats);
+        return pending;
+    }
+
+    private void count(QueryStats stats) {
+        invocations++;
+        statements += stats.getStatements();
+        roundTrips += stats.getRoundTrips();
+    }
+
+    private static List<Question> insertPerRow(List<Question> questions) throws SQLException {
+        try (Connection connection = UnitOfWork.getConnection();
+             PreparedStatement questionStmt = connection.prepareStatement(INSERT_QUESTION_SQL, Statement.RETURN_GENERATED_KEYS);
+             PreparedStatement answerStmt = connection.prepareStatement(INSERT_ANSWER_SQL, Statement.RETURN_GENERATED_KEYS)) {
+            for (Question question : questions) {
+                questionStmt.setLong(1, question.getQuizId());
+                questionStmt.setString(2, question.getQuestionText());
+                questionStmt.setString(3, question.getType().name());
+                questionStmt.setInt(4, question.getPoints());
+                questionStmt.setInt(5, question.getOrder());
+                questionStmt.executeUpdate();
+                try (ResultSet rs = questionStmt.getGeneratedKeys()) {
+                    if (rs.next()) {
+                        question.setId(rs.getLong(1));
+                    }
+                }
+                for (int i = 0; i < question.getAnswers().size(); i++) {
+                    Answer answer = question.getAnswers().get(i);
+                    answer.setQuestionId(question.getId());
+                    answerStmt.setLong(1, question.getId());
+                    answerStmt.setString(2, answer.getAnswerText());
+                    answerStmt.setBoolean(3, answer.getIsCorrect());
+                    answerStmt.setInt(4, answer.getAnswerOrder() != null ? answer.getAnswerOrder() : i + 1);
+                    answerStmt.executeUpdate();
+                    try (ResultSet rs = answerStmt.getGeneratedKeys()) {
+                        if (rs.next()) {
+                            answer.setId(rs.getLong(1));
+                        }
+                    }
+                }
+            }
+        }
+        return questions;
+    }
+}
@@ -0,0 +1,251 @@
+package com.quizplatform.repositories;
+
+import com.quizplatform.dao.AnswerMapper;
+import com.quizplatform.dao.QuizQuestionMapper;
+import com.quizplatform.jmh.Fixtures;
+import com.quizplatform.models.Answer;
+import com.quizplatform.models.Question;
+import com.quizplatform.models.Quiz;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.jdbi.v3.core.Handle;
+import org.jdbi.v3.core.Jdbi;
+import org.jdbi.v3.core.mapper.RowMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Row mapping behind QuestionRepository.findByQuizId, fed from an in-memory result set shaped like
+// QUESTIONS_WITH_ANSWERS_SQL instead of PostgreSQL. findByQuizIds runs the real JDBI query and
+// reduceRows fold; mappersOnly is the index-resolved mappers without JDBI around them. byNameBaseline
+// is the hand-written loop findByQuizIds ran before JDBI, reading every column by label, so it pays
+// a column lookup per get where the mappers resolve indexes once per result set. All three go
+// through the same proxied ResultSet, so its dispatch cost is in every number.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QuestionMappingBenchmark {
+    private static final String[] COLUMNS = {
+        "id", "quiz_id", "question_text", "question_type", "points", "question_order",
+        "answer_id", "answer_question_id", "answer_text", "is_correct", "answer_order"
+    };
+
+    @Param({"10", "100", "500"})
+    public int questions;
+
+    private Object[][] rows;
+    private Jdbi jdbi;
+    private QuestionRepository repository;
+    private Long quizId;
+
+    @Setup
+    public void setUp() {
+        Quiz quiz = Fixtures.quiz(questions);
+        quizId = quiz.getId();
+        List<Object[]> joined = new ArrayList<>();
+        for (Question question : quiz.getQuestions()) {
+            for (Answer answer : question.getAnswers()) {
+                joined.add(new Object[] {
+                    question.getId(), question.getQuizId(), question.getQuestionText(), question.getType().name(),
+                    question.getPoints(), question.getOrder(),
+                    answer.getId(), answer.getQuestionId(), answer.getAnswerText(), answer.getIsCorrect(), answer.getAnswerOrder()
+                });
+            }
+        }
+        rows = joined.toArray(new Object[0][]);
+
+        Connection[] connection = new Connection[1];
+        connection[0] = stub(Connection.class, (method, args) -> {
+            switch (method.getName()) {
+                case "prepareStatement":
+                    return statement(connection[0]);
+                case "createArrayOf":
+                    return stub(Array.class, (m, a) -> null);
+                case "getAutoCommit":
+                    return true;
+                default:
+                    return null;
+            }
+        });
+        // Without PostgresPlugin, which needs a real PGConnection; core JDBI binds the ID array itself
+        jdbi = Jdbi.create(() -> connection[0]);
+        jdbi.registerRowMapper(Question.class, new QuizQuestionMapper());
+        jdbi.registerRowMapper(Answer.class, new AnswerMapper());
+        repository = new QuestionRepository();
+    }
+
+    @Benchmark
+    public Map<Long, List<Question>> findByQuizIds() {
+        try (Handle handle = jdbi.open()) {
+            return repository.findByQuizIds(handle, List.of(quizId), true);
+        }
+    }
+
+    @Benchmark
+    public List<Question> mappersOnly() throws SQLException {
+        ResultSet rs = resultSet();
+        RowMapper<Question> questionMapper = new QuizQuestionMapper().specialize(rs, null);
+        RowMapper<Answer> answerMapper = new AnswerMapper("answer_id", "answer_question_id").specialize(rs, null);
+        List<Question> questions = new ArrayList<>();
+        Question current = null;
+        while (rs.next()) {
+            if (current == null || current.getId() != rs.getLong(1)) {
+                current = questionMapper.map(rs, null);
+                questions.add(current);
+            }
+            Answer answer = answerMapper.map(rs, null);
+            if (answer != null) {
+                current.getAnswers().add(answer);
+            }
+        }
+        return questions;
+    }
+
+    @Benchmark
+    public Map<Long, List<Question>> byNameBaseline() throws SQLException {
+        ResultSet rs = resultSet();
+        Map<Long, List<Question>> questionsByQuiz = new HashMap<>();
+        Question currentQuestion = null;
+        while (rs.next()) {
+            Long questionId = rs.getLong("id");
+            if (currentQuestion == null || !currentQuestion.getId().equals(questionId)) {
+                Long quizId = rs.getLong("quiz_id");
+                currentQuestion = new Question();
+                currentQuestion.setId(questionId);
+                currentQuestion.setQuizId(quizId);
+                currentQuestion.setQuestionText(rs.getString("question_text"));
+                currentQuestion.setType(Question.QuestionType.valueOf(rs.getString("question_type")));
+                currentQuestion.setPoints(rs.getInt("points"));
+                currentQuestion.setOrder(rs.getInt("question_order"));
+                currentQuestion.setAnswers(new ArrayList<>());
+                questionsByQuiz.computeIfAbsent(quizId, id -> new ArrayList<>()).add(currentQuestion);
+            }
+            if (rs.getLong("answer_id") != 0) {
+                Answer answer = new Answer();
+                answer.setId(rs.getLong("answer_id"));
+                answer.setQuestionId(questionId);
+                answer.setAnswerText(rs.getString("answer_text"));
+                answer.setIsCorrect(rs.getBoolean("is_correct"));
+                answer.setAnswerOrder(rs.getInt("answer_order"));
+                currentQuestion.getAnswers().add(answer);
+            }
+        }
+        return questionsByQuiz;
+    }
+
+    private PreparedStatement statement(Connection connection) {
+        ResultSet rs = resultSet();
+        return stub(PreparedStatement.class, (method, args) -> {
+            switch (method.getName()) {
+                case "getConnection":
+                    return connection;
+                case "execute":
+                    return true;
+                case "executeQuery":
+                case "getResultSet":
+                    return rs;
+                case "getUpdateCount":
+                    return -1;
+                default:
+                    return null;
+            }
+        });
+    }
+
+    private ResultSet resultSet() {
+        int[] cursor = { -1 };
+        boolean[] wasNull = { false };
+        ResultSetMetaData metaData = stub(ResultSetMetaData.class, (method, args) -> {
+            switch (method.getName()) {
+                case "getColumnCount":
+                    return COLUMNS.length;
+                case "getColumnLabel":
+                case "getColumnName":
+                    return COLUMNS[(Integer) args[0] - 1];
+                default:
+                    return null;
+            }
+        });
+        return stub(ResultSet.class, (method, args) -> {
+            String name = method.getName();
+            switch (name) {
+                case "next":
+                    return ++cursor[0] < rows.length;
+                case "findColumn":
+                    return column((String) args[0]);
+                case "getMetaData":
+                    return metaData;
+                case "wasNull":
+                    return wasNull[0];
+                default:
+                    break;
+            }
+            if (name.startsWith("get") && args != null && args.length == 1) {
+                int index = args[0] instanceof Integer ? (Integer) args[0] : column((String) args[0]);
+                Object value = rows[cursor[0]][index - 1];
+                wasNull[0] = value == null;
+                if (value == null || method.getReturnType().isInstance(value) || method.getReturnType() == Object.class) {
+                    return value;
+                }
+                return method.getReturnType() == long.class ? ((Number) value).longValue() : value;
+            }
+            return null;
+        });
+    }
+
+    private static int column(String label) throws SQLException {
+        for (int i = 0; i < COLUMNS.length; i++) {
+            if (COLUMNS[i].equalsIgnoreCase(label)) {
+                return i + 1;
+            }
+        }
+        throw new SQLException("Unknown column " + label);
+    }
+
+    // Answers every call through the handler; primitive results default to zero or false
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type, Handler handler) {
+        return (T) Proxy.newProxyInstance(QuestionMappingBenchmark.class.getClassLoader(), new Class<?>[] { type },
+            (proxy, method, args) -> {
+                Object result = handler.handle(method, args);
+                if (result == null && method.getReturnType().isPrimitive()) {
+                    Class<?> returnType = method.getReturnType();
+                    if (returnType == boolean.class) {
+                        return false;
+                    }
+                    if (returnType == void.class) {
+                        return null;
+                    }
+                    return returnType == long.class ? 0L : returnType == double.class ? 0.0 : returnType == float.class ? 0f
+                        : returnType == short.class ? (short) 0 : returnType == byte.class ? (byte) 0 : 0;
+                }
+                return result;
+            });
+    }
+
+    private interface Handler {
+        Object handle(Method method, Object[] args) throws Throwable;
+    }
+}
@@ -0,0 +1,61 @@
+package com.quizplatform.utils;
+
+import com.quizplatform.jmh.Fixtures;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// CPU cost of the response encodings for the student quiz payload and the static frontend entry
+// point: what on-the-fly compression pays for every response, while cached payloads and
+// precompressed static files pay it once per version. Compressed sizes are printed at setup.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompressionBenchmark {
+    @Param({"quiz-30", "quiz-100", "index.html"})
+    public String payload;
+
+    private byte[] data;
+
+    @Setup
+    public void setUp() throws IOException {
+        if (payload.equals("index.html")) {
+            try (InputStream index = CompressionBenchmark.class.getResourceAsStream("/public/index.html")) {
+                if (index == null) {
+                    throw new IllegalStateException("public/index.html is not on the classpath");
+                }
+                data = index.readAllBytes();
+            }
+        } else {
+            data = Json.toBytes(Fixtures.quiz(Integer.parseInt(payload.substring("quiz-".length()))));
+        }
+        byte[] brotli = Compression.brotli(data);
+        System.out.printf("%n%s: identity %d bytes, gzip %d, br %s%n", payload, data.length, Compression.gzip(data).length,
+            brotli != null ? String.valueOf(brotli.length) : "unavailable");
+    }
+
+    @Benchmark
+    public byte[] gzip() {
+        return Compression.gzip(data);
+    }
+
+    // Returns null without the native library; the score then only measures the availability check
+    @Benchmark
+    public byte[] brotli() {
+        return Compression.brotli(data);
+    }
+}
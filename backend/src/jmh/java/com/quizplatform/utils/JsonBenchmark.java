@@ -0,0 +1,90 @@
+package com.quizplatform.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.quizplatform.jmh.Fixtures;
+import com.quizplatform.models.Quiz;
+import com.quizplatform.models.QuizSubmission;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+// The two paths of BaseController.jsonResponse: GET streams into the response, other methods
+// buffer the body as bytes first. quizString is writeValueAsString on the same mapper, and
+// legacyQuizString the path jsonResponse had before: a plain mapper without Blackbird, with the
+// String encoded to bytes again as ctx.result(String) does. Run with -prof gc and compare
+// gc.alloc.rate.norm for the bytes each path allocates per response.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+    @Param({"10", "100", "500"})
+    public int questions;
+
+    private static final ObjectMapper LEGACY_MAPPER = new ObjectMapper()
+        .registerModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private Quiz quiz;
+    private QuizSubmission submission;
+    private OutputStream sink;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        quiz = Fixtures.quiz(questions);
+        submission = Fixtures.submission(quiz);
+        sink = new OutputStream() {
+            @Override
+            public void write(int b) {
+                blackhole.consume(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                blackhole.consume(b);
+            }
+        };
+    }
+
+    @Benchmark
+    public void streamQuiz() throws IOException {
+        Json.write(sink, quiz);
+    }
+
+    @Benchmark
+    public byte[] quizBytes() throws IOException {
+        return Json.toBytes(quiz);
+    }
+
+    @Benchmark
+    public String quizString() throws IOException {
+        return Json.MAPPER.writeValueAsString(quiz);
+    }
+
+    @Benchmark
+    public byte[] legacyQuizString() throws IOException {
+        return LEGACY_MAPPER.writeValueAsString(quiz).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] submissionBytes() throws IOException {
+        return Json.toBytes(submission);
+    }
+}
@@ -0,0 +1,143 @@
+package com.quizplatform.utils;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Request-thread throughput of the old println logging against the async SLF4J pipeline, both
+// writing to a temporary file as a container's collected stdout would. The pipeline is built the
+// way logback.xml builds it (same queue size, discarding threshold and neverBlock) in a private
+// LoggerContext, so the benchmark does not depend on the logging configuration on the classpath.
+// The async appender drops INFO events once its queue is nearly full. Those calls are cheap, so the
+// primary score alone overstates delivery: the enqueued and dropped counters split it into events
+// that reached the queue and events that were thrown away.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(Threads.MAX)
+@Fork(1)
+public class LoggingBenchmark {
+    private static final String PATTERN = "%d{ISO8601} %-5level [%thread] %logger{36} - %msg%n";
+    private static final ThreadLocal<Delivery> CURRENT_DELIVERY = new ThreadLocal<>();
+
+    private File sinkFile;
+    private PrintStream stdout;
+    private LoggerContext context;
+    private Logger log;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        sinkFile = File.createTempFile("logging-benchmark", ".log");
+        sinkFile.deleteOnExit();
+        // Autoflushing like System.out: every println takes the stream lock and writes while holding it
+        stdout = new PrintStream(new BufferedOutputStream(new FileOutputStream(sinkFile, true), 8192), true);
+
+        context = new LoggerContext();
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+        OutputStreamAppender<ILoggingEvent> console = new OutputStreamAppender<>();
+        console.setContext(context);
+        console.setEncoder(encoder);
+        console.setOutputStream(new FileOutputStream(sinkFile, true));
+        console.start();
+
+        CountingAsyncAppender async = new CountingAsyncAppender();
+        async.setContext(context);
+        async.setQueueSize(8192);
+        async.setDiscardingThreshold(1638);
+        async.setNeverBlock(true);
+        async.setIncludeCallerData(false);
+        async.addAppender(console);
+        async.start();
+
+        log = context.getLogger("com.quizplatform.bench");
+        log.setLevel(ch.qos.logback.classic.Level.INFO);
+        log.setAdditive(false);
+        log.addAppender(async);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.stop();
+        stdout.close();
+        sinkFile.delete();
+    }
+
+    // Per-thread split of the async calls; reported as rates next to the primary score
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Delivery {
+        public long enqueued;
+        public long dropped;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            enqueued = 0;
+            dropped = 0;
+            CURRENT_DELIVERY.set(this);
+        }
+    }
+
+    @Benchmark
+    public void println() {
+        stdout.println("Graded submission " + 17 + " for quiz " + 42L + ": " + 8 + " points");
+    }
+
+    @Benchmark
+    public void slf4jAsyncInfo(Delivery delivery) {
+        long droppedBefore = delivery.dropped;
+        log.info("Graded submission {} for quiz {}: {} points", 17, 42L, 8);
+        if (delivery.dropped == droppedBefore) {
+            delivery.enqueued++;
+        }
+    }
+
+    @Benchmark
+    public void slf4jDisabledDebug() {
+        log.debug("Graded submission {} for quiz {}: {} points", 17, 42L, 8);
+    }
+
+    // AsyncAppender asks isDiscardable only once the queue is below the discarding threshold, on the
+    // calling thread, and a true answer drops the event. INFO is discarded from that point on, so its
+    // events never reach a full queue, where a neverBlock offer would drop them without asking.
+    private static final class CountingAsyncAppender extends AsyncAppender {
+        @Override
+        protected boolean isDiscardable(ILoggingEvent event) {
+            boolean discardable = super.isDiscardable(event);
+            if (discardable) {
+                Delivery delivery = CURRENT_DELIVERY.get();
+                if (delivery != null) {
+                    delivery.dropped++;
+                }
+            }
+            return discardable;
+        }
+    }
+}
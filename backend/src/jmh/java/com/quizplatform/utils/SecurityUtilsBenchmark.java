@@ -0,0 +1,47 @@
+package com.quizplatform.utils;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.quizplatform.models.AuthPrincipal;
+import com.quizplatform.models.User;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Token checks on every authenticated request: the full signature verification against the
+// cached path AuthMiddleware takes. The revocation list is never started, so no database is needed.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SecurityUtilsBenchmark {
+    private String token;
+
+    @Setup
+    public void setUp() {
+        User user = new User();
+        user.setId(314L);
+        user.setEmail("student@example.com");
+        user.setRole(User.UserRole.STUDENT);
+        token = SecurityUtils.generateToken(user);
+    }
+
+    @Benchmark
+    public DecodedJWT verifyToken() {
+        return SecurityUtils.verifyToken(token);
+    }
+
+    @Benchmark
+    public AuthPrincipal authenticateCached() {
+        return SecurityUtils.authenticate(token);
+    }
+}
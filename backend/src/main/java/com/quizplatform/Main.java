@@ -1,11 +1,23 @@
 package com.quizplatform;
 
+import com.quizplatform.controllers.AdminController;
+import com.quizplatform.controllers.BaseController;
 import com.quizplatform.controllers.UserController;
 import com.quizplatform.controllers.QuizController;
+import com.quizplatform.metrics.Metrics;
+import com.quizplatform.metrics.RequestMetrics;
 import com.quizplatform.middleware.AuthMiddleware;
+import com.quizplatform.repositories.QueryCountingDataSource;
+import com.quizplatform.repositories.QueryStats;
+import com.quizplatform.repositories.UnitOfWork;
+import com.quizplatform.utils.PasswordHashingPool.PasswordHashingOverloadedException;
+import com.quizplatform.utils.TokenRevocationList;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import com.quizplatform.utils.Compression;
+import com.quizplatform.utils.Json;
 import io.javalin.Javalin;
+import io.javalin.json.JavalinJackson;
 import io.javalin.http.staticfiles.Location;
 import io.javalin.plugin.bundled.CorsPluginConfig;
 import com.quizplatform.models.User;
@@ -13,32 +25,70 @@ import io.javalin.security.RouteRole;
 import io.javalin.security.AccessManager;
 import io.javalin.http.Context;
 import io.javalin.http.Handler;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.util.Set;
+import java.util.stream.Collectors;
 import org.flywaydb.core.Flyway;
 import java.util.Map;
-import com.quizplatform.utils.SecurityUtils;
 import java.sql.Connection;
 import java.sql.SQLException;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class Main {
-    private static HikariDataSource dataSource;
+    private static final Logger log = LoggerFactory.getLogger(Main.class);
+    // Access log category; logback.xml samples it independently of the application loggers
+    private static final Logger accessLog = LoggerFactory.getLogger("com.quizplatform.http");
+    private static final String CONNECTIONS_HELD_ATTRIBUTE = "connectionsHeld";
+    // /metrics is only served when a scrape token is configured
+    private static final String METRICS_TOKEN = emptyToNull(System.getenv("METRICS_TOKEN"));
+    private static HikariDataSource pool;
+    // What the repositories use: the pool, with every checkout and statement counted per request
+    private static DataSource dataSource;
 
     public static void main(String[] args) {
         initializeDatabase();
         runMigrations();
+        TokenRevocationList.start();
+        if (METRICS_TOKEN == null) {
+            log.warn("METRICS_TOKEN is not set; /metrics is disabled");
+        }
 
         Javalin app = Javalin.create(config -> {
-            config.staticFiles.add("/public", Location.CLASSPATH);
+            config.jsonMapper(new JavalinJackson(Json.MAPPER));
+            config.compression.custom(Compression.strategy());
+            // Static assets are compressed once per encoding and kept in memory
+            config.staticFiles.add(staticFiles -> {
+                staticFiles.directory = "/public";
+                staticFiles.location = Location.CLASSPATH;
+                staticFiles.precompress = true;
+            });
             config.plugins.enableCors(cors -> {
                 cors.add(it -> {
                     it.allowHost("http://localhost:3000");
                     it.allowHost("http://localhost");
                     it.allowHost("https://*.vercel.app");
                     it.allowCredentials = true;
+                    it.exposeHeader(BaseController.NEXT_CURSOR_HEADER);
                 });
             });
             config.requestLogger.http((ctx, ms) -> {
-                System.out.println("Request: " + ctx.method() + " " + ctx.path() + " - " + ms + "ms");
+                QueryStats queries = QueryStats.end();
+                int status = ctx.status().getCode();
+                String route = routeOf(ctx, status);
+                recordRequest(ctx, route, status, ms, queries);
+                String db = queries == null ? "-" : queries.getStatements() + "q/" + queries.getRoundTrips() + "rt/"
+                    + queries.getConnectionCheckouts() + "conn/" + queries.getDbNanos() / 1_000_000 + "ms";
+                // Pooled connections the request's unit of work held; "-" outside /api units
+                Integer held = ctx.attribute(CONNECTIONS_HELD_ATTRIBUTE);
+                Object unit = held == null ? "-" : held;
+                if (status >= 500) {
+                    accessLog.warn("{} {} {} {}ms db={} held={}", ctx.method(), ctx.path(), status, ms.longValue(), db, unit);
+                } else {
+                    accessLog.info("{} {} {} {}ms db={} held={}", ctx.method(), ctx.path(), status, ms.longValue(), db, unit);
+                }
             });
             config.accessManager((handler, ctx, permittedRoles) -> {
                 User.UserRole userRole = (User.UserRole) ctx.attribute("userRole");
@@ -48,15 +98,23 @@ public class Main {
                     return;
                 }
                 
+                // Replaces the body requireAuth may have set, e.g. "Invalid or expired token" becomes
+                // {"error": "Invalid or expired token"}
                 if (userRole == null) {
-                    ctx.status(401).result("Unauthorized");
+                    String authorization = ctx.header("Authorization");
+                    boolean bearer = authorization != null && authorization.startsWith("Bearer ");
+                    BaseController.accessErrorResponse(ctx, 401, bearer ? "Invalid or expired token" : "Authentication required");
                     return;
                 }
 
                 if (permittedRoles.contains(userRole)) {
                     handler.handle(ctx);
                 } else {
-                    ctx.status(403).result("Forbidden");
+                    String required = permittedRoles.stream()
+                        .map(role -> role.toString().charAt(0) + role.toString().substring(1).toLowerCase())
+                        .sorted()
+                        .collect(Collectors.joining(" or "));
+                    BaseController.accessErrorResponse(ctx, 403, required + " access required");
                 }
             });
         });
@@ -64,21 +122,33 @@ public class Main {
 
         UserController userController = new UserController();
         QuizController quizController = new QuizController();
+        AdminController adminController = new AdminController();
 
 
-        app.get("/", ctx -> {
-            System.out.println("Root endpoint hit!");
-            ctx.result("Server is running!");
-        });
+        app.get("/", ctx -> ctx.result("Server is running!"));
         app.post("/api/users/register", userController::register);
         app.post("/api/users/login", userController::login);
         app.get("/health", ctx -> ctx.result("OK"));
+        app.get("/metrics", Main::metrics);
         app.get("/api/", ctx -> ctx.result("Quiz Platform API Root"));
 
 
+        // Counts the request's statements, round trips and connection checkouts; read in the request logger
+        app.before(ctx -> QueryStats.begin());
+
+        // One connection and one transaction per API request. Login and register stay outside a unit
+        // so a pooled connection isn't pinned while BCrypt runs.
         app.before("/api/*", ctx -> {
-            System.out.println("AuthMiddleware running for: " + ctx.path());
-            if (ctx.path().equals("/api/users/register") || ctx.path().equals("/api/users/login")) {
+            if (!isCredentialsPath(ctx.path())) {
+                UnitOfWork.begin();
+            }
+        });
+        app.after("/api/*", ctx -> {
+            ctx.attribute(CONNECTIONS_HELD_ATTRIBUTE, UnitOfWork.end(ctx.status().getCode() < 400));
+        });
+
+        app.before("/api/*", ctx -> {
+            if (isCredentialsPath(ctx.path())) {
                 return;
             }
             AuthMiddleware.requireAuth.handle(ctx);
@@ -87,7 +157,7 @@ public class Main {
         app.get("/api/users/me", ctx -> {
             Long userId = (Long) ctx.attribute("userId");
             if (userId == null) {
-                ctx.status(401).result("Unauthorized");
+                BaseController.accessErrorResponse(ctx, 401, "Authentication required");
                 return;
             }
             userController.getProfile(ctx);
@@ -107,100 +177,21 @@ public class Main {
         app.post("/api/quizzes/{id}/questions", quizController::addQuestion, User.UserRole.INSTRUCTOR);
         app.post("/api/quizzes/{id}/publish", quizController::publishQuiz, User.UserRole.INSTRUCTOR);
 
-        app.get("/api/test", ctx -> {
-            System.out.println("Test route hit!");
-            ctx.result("Test route works!");
-        });
+        // AdminController also requires the operator token on each of these
+        app.get("/api/admin/caches", adminController::getCacheStats, User.UserRole.INSTRUCTOR);
+        app.get("/api/admin/password-hashing", adminController::getPasswordHashingStats, User.UserRole.INSTRUCTOR);
+        app.get("/api/admin/slow-queries", adminController::getSlowQueries, User.UserRole.INSTRUCTOR);
+        app.post("/api/admin/slow-queries/{id}/explain", adminController::explainSlowQuery, User.UserRole.INSTRUCTOR);
 
-        app.get("/api/quizzes/{id}/attempts", ctx -> {
-            System.out.println("=== Quiz Attempts Route ===");
-            System.out.println("Request path: " + ctx.path());
-            System.out.println("Quiz ID: " + ctx.pathParam("id"));
-            System.out.println("Auth header: " + ctx.header("Authorization"));
-            try {
-                String token = ctx.header("Authorization");
-                if (token == null || !token.startsWith("Bearer ")) {
-                    ctx.status(401).json(Map.of("error", "Authentication required"));
-                    return;
-                }
-                token = token.substring(7);
-                SecurityUtils.verifyToken(token);
-                Long userId = SecurityUtils.getUserIdFromToken(token);
-                User.UserRole role = SecurityUtils.getRoleFromToken(token);
-                System.out.println("User ID: " + userId);
-                System.out.println("User Role: " + role);
-                if (role != User.UserRole.INSTRUCTOR) {
-                    ctx.status(403).json(Map.of("error", "Instructor access required"));
-                    return;
-                }
-                ctx.attribute("userId", userId);
-                ctx.attribute("userRole", role);
-                quizController.getQuizAttempts(ctx);
-            } catch (Exception e) {
-                e.printStackTrace();
-                ctx.status(401).json(Map.of("error", "Invalid or expired token"));
-            }
-        });
+        // Password hashing outside login/register (profile updates) sheds load the same way
+        app.exception(PasswordHashingOverloadedException.class, (e, ctx) -> BaseController.overloadedResponse(ctx, e));
 
-        app.get("/api/quizzes/{id}/analytics", ctx -> {
-            System.out.println("=== Quiz Analytics Route ===");
-            System.out.println("Request path: " + ctx.path());
-            System.out.println("Quiz ID: " + ctx.pathParam("id"));
-            System.out.println("Auth header: " + ctx.header("Authorization"));
-            try {
-                String token = ctx.header("Authorization");
-                if (token == null || !token.startsWith("Bearer ")) {
-                    ctx.status(401).json(Map.of("error", "Authentication required"));
-                    return;
-                }
-                token = token.substring(7);
-                SecurityUtils.verifyToken(token);
-                Long userId = SecurityUtils.getUserIdFromToken(token);
-                User.UserRole role = SecurityUtils.getRoleFromToken(token);
-                System.out.println("User ID: " + userId);
-                System.out.println("User Role: " + role);
-                if (role != User.UserRole.INSTRUCTOR) {
-                    ctx.status(403).json(Map.of("error", "Instructor access required"));
-                    return;
-                }
-                ctx.attribute("userId", userId);
-                ctx.attribute("userRole", role);
-                quizController.getQuizAnalytics(ctx);
-            } catch (Exception e) {
-                e.printStackTrace();
-                ctx.status(401).json(Map.of("error", "Invalid or expired token"));
-            }
-        });
+        app.get("/api/test", ctx -> ctx.result("Test route works!"));
 
-        app.get("/api/quizzes/{id}/report", ctx -> {
-            System.out.println("=== Quiz Report Route ===");
-            System.out.println("Request path: " + ctx.path());
-            System.out.println("Quiz ID: " + ctx.pathParam("id"));
-            System.out.println("Auth header: " + ctx.header("Authorization"));
-            try {
-                String token = ctx.header("Authorization");
-                if (token == null || !token.startsWith("Bearer ")) {
-                    ctx.status(401).json(Map.of("error", "Authentication required"));
-                    return;
-                }
-                token = token.substring(7);
-                SecurityUtils.verifyToken(token);
-                Long userId = SecurityUtils.getUserIdFromToken(token);
-                User.UserRole role = SecurityUtils.getRoleFromToken(token);
-                System.out.println("User ID: " + userId);
-                System.out.println("User Role: " + role);
-                if (role != User.UserRole.INSTRUCTOR) {
-                    ctx.status(403).json(Map.of("error", "Instructor access required"));
-                    return;
-                }
-                ctx.attribute("userId", userId);
-                ctx.attribute("userRole", role);
-                quizController.generateQuizReport(ctx);
-            } catch (Exception e) {
-                e.printStackTrace();
-                ctx.status(401).json(Map.of("error", "Invalid or expired token"));
-            }
-        });
+        // Authenticated by the /api/* before-handler; the access manager enforces the role
+        app.get("/api/quizzes/{id}/attempts", quizController::getQuizAttempts, User.UserRole.INSTRUCTOR);
+        app.get("/api/quizzes/{id}/analytics", quizController::getQuizAnalytics, User.UserRole.INSTRUCTOR);
+        app.get("/api/quizzes/{id}/report", quizController::generateQuizReport, User.UserRole.INSTRUCTOR);
 
         app.post("/api/quizzes/{id}/start", quizController::startQuiz, User.UserRole.STUDENT);
         app.post("/api/quizzes/{id}/submit", quizController::submitQuiz, User.UserRole.STUDENT);
@@ -212,6 +203,64 @@ public class Main {
         app.start(port);
     }
 
+    // Route template for metric labels; raw paths would give every quiz ID its own series
+    private static String routeOf(Context ctx, int status) {
+        String route;
+        try {
+            route = ctx.endpointHandlerPath();
+        } catch (IllegalStateException e) {
+            // The request ended in a before-handler
+            route = null;
+        }
+        if (route == null || route.isEmpty()) {
+            route = status == 404 ? "unmatched" : "static";
+        }
+        return route;
+    }
+
+    private static void recordRequest(Context ctx, String route, int status, float ms, QueryStats queries) {
+        String method = ctx.method().name();
+        RequestMetrics metrics = RequestMetrics.of(method, route, status);
+        metrics.record((long) (ms * 1_000_000));
+        if (queries == null) {
+            return;
+        }
+
+        boolean repeated = !queries.getRepeatedStatements().isEmpty();
+        metrics.getRoute().recordDatabase(queries.getStatements(), queries.getRoundTrips(),
+            queries.getConnectionCheckouts(), queries.getDbNanos(), repeated);
+        if (repeated) {
+            for (String sql : queries.getRepeatedStatements()) {
+                log.warn("Possible N+1: {} {} ran this statement {} times: {}", method, route, queries.getExecutions(sql), sql);
+            }
+        }
+    }
+
+    // Prometheus scrape endpoint. Requires "Authorization: Bearer <METRICS_TOKEN>"; without a
+    // configured token the endpoint stays closed rather than exposing routes and internals.
+    private static void metrics(Context ctx) {
+        if (METRICS_TOKEN == null) {
+            ctx.status(404).result("Not found");
+            return;
+        }
+        String authorization = ctx.header("Authorization");
+        if (authorization == null || !MessageDigest.isEqual(
+                ("Bearer " + METRICS_TOKEN).getBytes(StandardCharsets.UTF_8), authorization.getBytes(StandardCharsets.UTF_8))) {
+            ctx.status(401).result("Unauthorized");
+            return;
+        }
+        ctx.contentType("text/plain; version=0.0.4; charset=utf-8");
+        ctx.result(Metrics.scrape());
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    private static boolean isCredentialsPath(String path) {
+        return path.equals("/api/users/register") || path.equals("/api/users/login");
+    }
+
     private static void initializeDatabase() {
         try {
             // Explicitly load the PostgreSQL driver
@@ -223,7 +272,12 @@ public class Main {
             String dbUser = System.getenv().getOrDefault("DB_USER", "quiz_platform_db_user");
             String dbPassword = System.getenv().getOrDefault("DB_PASSWORD", "EZ8IhYi0YV4G19zHmYmGE6kN4Rgkdj7d");
 
-            System.out.println("Connecting to database with URL: " + dbUrl);
+            // Let pgjdbc collapse JDBC batches into multi-row INSERTs
+            if (!dbUrl.contains("reWriteBatchedInserts")) {
+                dbUrl += (dbUrl.contains("?") ? "&" : "?") + "reWriteBatchedInserts=true";
+            }
+
+            log.info("Connecting to database at {}", dbUrl);
             
             HikariConfig config = new HikariConfig();
             config.setJdbcUrl(dbUrl);
@@ -238,11 +292,13 @@ public class Main {
             // Add connection test query
             config.setConnectionTestQuery("SELECT 1");
             
-            dataSource = new HikariDataSource(config);
+            pool = new HikariDataSource(config);
+            registerPoolMetrics(pool);
+            dataSource = new QueryCountingDataSource(pool);
             
             // Test the connection
             try (Connection conn = dataSource.getConnection()) {
-                System.out.println("Successfully connected to the database!");
+                log.info("Connected to the database");
             }
         } catch (ClassNotFoundException e) {
             throw new RuntimeException("Failed to load PostgreSQL driver", e);
@@ -251,30 +307,45 @@ public class Main {
         }
     }
 
+    private static void registerPoolMetrics(HikariDataSource pool) {
+        Metrics.gauge("db_pool_connections", "Pooled database connections", () -> pool.getHikariPoolMXBean().getActiveConnections(), "state", "active");
+        Metrics.gauge("db_pool_connections", "Pooled database connections", () -> pool.getHikariPoolMXBean().getIdleConnections(), "state", "idle");
+        Metrics.gauge("db_pool_pending_threads", "Threads waiting for a pooled connection", () -> pool.getHikariPoolMXBean().getThreadsAwaitingConnection());
+        Metrics.gauge("db_pool_max_connections", "Maximum pool size", pool::getMaximumPoolSize);
+    }
+
     private static void runMigrations() {
         try {
-            Flyway flyway = Flyway.configure()
-                .dataSource(dataSource)
-                .locations("classpath:db/migration")
-                .baselineOnMigrate(true)
-                .outOfOrder(true)
-                .validateOnMigrate(false)
-                .cleanDisabled(false)  
-                .load();
-
-            flyway.repair();
-
-            flyway.migrate();
-            
-            System.out.println("Database migrations completed successfully");
+            migrate(pool);
+            log.info("Database migrations completed");
         } catch (Exception e) {
-            System.err.println("Error running migrations: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error running migrations", e);
             System.exit(1);
         }
     }
 
-    public static HikariDataSource getDataSource() {
+    // Also used by the tests against their embedded database
+    static void migrate(DataSource target) {
+        Flyway flyway = Flyway.configure()
+            .dataSource(target)
+            .locations("classpath:db/migration")
+            .baselineOnMigrate(true)
+            .outOfOrder(true)
+            .validateOnMigrate(false)
+            .cleanDisabled(false)
+            .load();
+
+        flyway.repair();
+
+        flyway.migrate();
+    }
+
+    // Points the repositories at another database, counted like the pool; for tests
+    static void useDataSource(DataSource target) {
+        dataSource = new QueryCountingDataSource(target);
+    }
+
+    public static DataSource getDataSource() {
         return dataSource;
     }
 } 
\ No newline at end of file
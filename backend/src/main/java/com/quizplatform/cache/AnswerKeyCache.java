@@ -0,0 +1,30 @@
+package com.quizplatform.cache;
+
+import com.quizplatform.grading.AnswerKey;
+import com.quizplatform.repositories.QuizRepository;
+import java.time.Duration;
+import java.util.Optional;
+
+// Compiled answer keys by quiz ID, so a wave of submissions grades against one in-memory plan
+// instead of reloading the quiz with its answers for every student.
+public class AnswerKeyCache {
+    private static final int MAX_QUIZZES = 1024;
+    private static final Duration TTL = Duration.ofMinutes(30);
+
+    private final QuizRepository quizRepository;
+    private final TtlCache<Long, AnswerKey> answerKeys = new TtlCache<>("answerKeys", MAX_QUIZZES, TTL);
+
+    public AnswerKeyCache(QuizRepository quizRepository) {
+        this.quizRepository = quizRepository;
+    }
+
+    // Empty when the quiz does not exist; missing quizzes are not cached
+    public Optional<AnswerKey> get(Long quizId) {
+        return Optional.ofNullable(answerKeys.get(quizId,
+            () -> quizRepository.findByIdWithAnswers(quizId).map(AnswerKey::compile).orElse(null)));
+    }
+
+    public void invalidate(Long quizId) {
+        answerKeys.invalidate(quizId);
+    }
+}
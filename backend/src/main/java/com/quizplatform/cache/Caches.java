@@ -0,0 +1,25 @@
+package com.quizplatform.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Every TtlCache registers itself here so their counters can be reported in one place
+public final class Caches {
+    private static final List<TtlCache<?, ?>> CACHES = new CopyOnWriteArrayList<>();
+
+    private Caches() {}
+
+    static void register(TtlCache<?, ?> cache) {
+        CACHES.add(cache);
+    }
+
+    public static List<Map<String, Object>> stats() {
+        List<Map<String, Object>> stats = new ArrayList<>();
+        for (TtlCache<?, ?> cache : CACHES) {
+            stats.add(cache.stats());
+        }
+        return stats;
+    }
+}
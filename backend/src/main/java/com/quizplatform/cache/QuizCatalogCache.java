@@ -0,0 +1,38 @@
+package com.quizplatform.cache;
+
+import com.quizplatform.models.Quiz;
+import com.quizplatform.models.QuizSummary;
+import com.quizplatform.repositories.QuizRepository;
+import java.time.Duration;
+import java.util.List;
+
+// Pages of the published catalog as students see it, keyed by cursor and limit. Every quiz edit
+// drops the whole catalog; the TTL only bounds how stale a page can get if an invalidation is missed.
+public class QuizCatalogCache {
+    private static final int MAX_PAGES = 256;
+    private static final Duration TTL = Duration.ofSeconds(60);
+
+    private final QuizRepository quizRepository;
+    private final TtlCache<String, List<Quiz>> quizzes = new TtlCache<>("publishedQuizzes", MAX_PAGES, TTL);
+    private final TtlCache<String, List<QuizSummary>> summaries = new TtlCache<>("publishedQuizSummaries", MAX_PAGES, TTL);
+
+    public QuizCatalogCache(QuizRepository quizRepository) {
+        this.quizRepository = quizRepository;
+    }
+
+    // Cached lists are shared between requests and must not be modified
+    public List<Quiz> findPublishedQuizzes(Long afterId, int limit) {
+        return quizzes.get(afterId + ":" + limit,
+            () -> List.copyOf(quizRepository.findPublishedQuizzes(afterId, limit)));
+    }
+
+    public List<QuizSummary> findPublishedSummaries(Long afterId, int limit) {
+        return summaries.get(afterId + ":" + limit,
+            () -> List.copyOf(quizRepository.findPublishedSummaries(afterId, limit)));
+    }
+
+    public void invalidate() {
+        quizzes.invalidateAll();
+        summaries.invalidateAll();
+    }
+}
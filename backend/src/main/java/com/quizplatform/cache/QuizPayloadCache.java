@@ -0,0 +1,151 @@
+package com.quizplatform.cache;
+
+import com.quizplatform.models.Quiz;
+import com.quizplatform.repositories.QuizRepository;
+import com.quizplatform.utils.Compression;
+import com.quizplatform.utils.Json;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HexFormat;
+import java.util.Optional;
+
+// Student view of a quiz, serialized once and served as bytes to every student until the quiz is
+// edited. The strong ETag comes from quizzes.updated_at, which every edit path bumps. Compressed
+// variants are built on first request and kept with the payload, so they are not recompressed.
+// Each variant has different bytes, so each gets its own strong ETag: the base tag with a coding
+// suffix, e.g. "q7-5f1a-gz". A cache then never pairs a tag with the body of another coding.
+public class QuizPayloadCache {
+    private static final int MAX_QUIZZES = 512;
+    private static final Duration TTL = Duration.ofMinutes(10);
+
+    private final QuizRepository quizRepository;
+    private final TtlCache<Long, Payload> payloads = new TtlCache<>("studentQuizPayloads", MAX_QUIZZES, TTL);
+
+    public QuizPayloadCache(QuizRepository quizRepository) {
+        this.quizRepository = quizRepository;
+    }
+
+    // Empty when the quiz does not exist
+    public Optional<Payload> get(Long quizId) {
+        return Optional.ofNullable(payloads.get(quizId,
+            () -> quizRepository.findById(quizId).map(QuizPayloadCache::serialize).orElse(null)));
+    }
+
+    public void invalidate(Long quizId) {
+        payloads.invalidate(quizId);
+    }
+
+    private static Payload serialize(Quiz quiz) {
+        try {
+            byte[] json = Json.toBytes(quiz);
+            return new Payload(json, etag(quiz, json));
+        } catch (IOException e) {
+            throw new RuntimeException("Error serializing quiz " + quiz.getId(), e);
+        }
+    }
+
+    // updated_at is nullable; a quiz without one is tagged with a digest of its payload instead,
+    // e.g. "q7-h3b9c0e4d12a87f55", which still changes whenever the served bytes do
+    static String etag(Quiz quiz, byte[] json) {
+        LocalDateTime updatedAt = quiz.getUpdatedAt();
+        if (updatedAt == null) {
+            return "\"q" + quiz.getId() + "-h" + contentHash(json) + "\"";
+        }
+        long micros = updatedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + updatedAt.getNano() / 1_000;
+        return "\"q" + quiz.getId() + "-" + Long.toHexString(micros) + "\"";
+    }
+
+    private static String contentHash(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public static final class Payload {
+        private final String etag;
+        private final Variant identity;
+        private volatile Variant gzip;
+        private volatile Variant brotli;
+
+        Payload(byte[] json, String etag) {
+            this.etag = etag;
+            this.identity = new Variant(json, null, etag);
+        }
+
+        public byte[] getJson() {
+            return identity.body;
+        }
+
+        // Variant for the given content coding ("br", "gzip" or null); identity when the payload is
+        // too small to be worth compressing or Brotli is unavailable
+        public Variant getVariant(String encoding) {
+            if (encoding == null || identity.body.length < Compression.MIN_SIZE_BYTES) {
+                return identity;
+            }
+            if (encoding.equals("br")) {
+                if (brotli == null) {
+                    byte[] body = Compression.brotli(identity.body);
+                    brotli = body != null ? new Variant(body, "br", suffixed("br")) : identity;
+                }
+                return brotli;
+            }
+            if (gzip == null) {
+                gzip = new Variant(Compression.gzip(identity.body), "gzip", suffixed("gz"));
+            }
+            return gzip;
+        }
+
+        private String suffixed(String suffix) {
+            return etag.substring(0, etag.length() - 1) + "-" + suffix + "\"";
+        }
+    }
+
+    public static final class Variant {
+        private final byte[] body;
+        private final String contentEncoding;
+        private final String etag;
+
+        Variant(byte[] body, String contentEncoding, String etag) {
+            this.body = body;
+            this.contentEncoding = contentEncoding;
+            this.etag = etag;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+
+        // Null for the identity variant
+        public String getContentEncoding() {
+            return contentEncoding;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        // If-None-Match may list several tags or be "*"; weak tags compare by their opaque value
+        public boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null) {
+                return false;
+            }
+            for (String tag : ifNoneMatch.split(",")) {
+                String candidate = tag.trim();
+                if (candidate.startsWith("W/")) {
+                    candidate = candidate.substring(2);
+                }
+                if (candidate.equals("*") || candidate.equals(etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
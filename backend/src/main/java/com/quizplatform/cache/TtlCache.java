@@ -0,0 +1,149 @@
+package com.quizplatform.cache;
+
+import com.quizplatform.metrics.Metrics;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+// Small in-process cache: entries expire after a fixed TTL and the size is bounded. Lookups are a
+// ConcurrentHashMap read plus an expiry check, with no lock on the hit path. Loads run outside any
+// lock, and a load that races with an invalidation is returned to its caller but not stored.
+// Concurrent misses on one key share a single load, so cached values must be treated as read-only.
+// When the bound is exceeded, one thread sweeps out expired entries and then the oldest writes.
+public class TtlCache<K, V> {
+    // A sweep frees this fraction of maxEntries beyond the bound, so sweeps stay rare at capacity
+    private static final int SWEEP_SLACK_DIVISOR = 10;
+
+    private final String name;
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final SingleFlight<K, V> loads = new SingleFlight<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final ReentrantLock sweepLock = new ReentrantLock();
+
+    public TtlCache(String name, int maxEntries, Duration ttl) {
+        this.name = name;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        Caches.register(this);
+        Metrics.counterFunction("cache_hits_total", "Cache lookups served from memory", hits::sum, "cache", name);
+        Metrics.counterFunction("cache_misses_total", "Cache lookups that needed a load", misses::sum, "cache", name);
+        Metrics.counterFunction("cache_evictions_total", "Entries evicted by the size bound", evictions::sum, "cache", name);
+        Metrics.counterFunction("cache_coalesced_loads_total", "Misses that joined a load already in flight", loads::getCoalesced, "cache", name);
+        Metrics.gauge("cache_size", "Entries currently cached", entries::size, "cache", name);
+    }
+
+    public V get(K key, Supplier<V> loader) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null) {
+            if (System.nanoTime() - entry.expiresAt < 0) {
+                hits.increment();
+                return entry.value;
+            }
+            entries.remove(key, entry);
+        }
+
+        misses.increment();
+        long loadGeneration = generation.get();
+        return loads.load(key, () -> {
+            V value = loader.get();
+            if (value != null) {
+                // Checked under the bin lock: an invalidation either bumps the generation before this
+                // runs, or removes the stored entry after it
+                entries.compute(key, (k, current) ->
+                    generation.get() == loadGeneration ? new Entry<>(value, System.nanoTime() + ttlNanos) : current);
+                evictIfFull();
+            }
+            return value;
+        });
+    }
+
+    // Stores a value that is known to be current, e.g. the row returned by a committed write
+    public void put(K key, V value) {
+        entries.put(key, new Entry<>(value, System.nanoTime() + ttlNanos));
+        evictIfFull();
+    }
+
+    public void invalidate(K key) {
+        generation.incrementAndGet();
+        entries.remove(key);
+        loads.forget(key);
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        entries.clear();
+        loads.forgetAll();
+    }
+
+    private void evictIfFull() {
+        if (entries.size() <= maxEntries || !sweepLock.tryLock()) {
+            return;
+        }
+        try {
+            long now = System.nanoTime();
+            entries.entrySet().removeIf(e -> now - e.getValue().expiresAt >= 0);
+            int excess = entries.size() - maxEntries;
+            if (excess <= 0) {
+                return;
+            }
+            // Every entry lives for the same TTL, so the earliest expiry is the oldest write
+            List<Map.Entry<K, Entry<V>>> oldest = new ArrayList<>(entries.entrySet());
+            oldest.sort(Comparator.comparingLong(e -> e.getValue().expiresAt - now));
+            int toRemove = Math.min(oldest.size(), excess + maxEntries / SWEEP_SLACK_DIVISOR);
+            for (int i = 0; i < toRemove; i++) {
+                Map.Entry<K, Entry<V>> e = oldest.get(i);
+                if (entries.remove(e.getKey(), e.getValue())) {
+                    evictions.increment();
+                }
+            }
+        } finally {
+            sweepLock.unlock();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Map<String, Object> stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        int size = entries.size();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("name", name);
+        stats.put("size", size);
+        stats.put("maxEntries", maxEntries);
+        stats.put("ttlSeconds", Duration.ofNanos(ttlNanos).toSeconds());
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("evictions", evictions.sum());
+        stats.put("loads", loads.getLoads());
+        stats.put("coalescedLoads", loads.getCoalesced());
+        stats.put("loadsInFlight", loads.getInFlight());
+        stats.put("hitRate", hitCount + missCount > 0 ? (double) hitCount / (hitCount + missCount) : 0.0);
+        return stats;
+    }
+
+    private static final class Entry<V> {
+        final V value;
+        final long expiresAt;
+
+        Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
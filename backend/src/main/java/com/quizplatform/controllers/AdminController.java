@@ -0,0 +1,76 @@
+package com.quizplatform.controllers;
+
+import com.quizplatform.cache.Caches;
+import com.quizplatform.repositories.SlowQueryLog;
+import com.quizplatform.utils.PasswordHashingPool;
+import io.javalin.http.Context;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class AdminController extends BaseController {
+    private static final Logger log = LoggerFactory.getLogger(AdminController.class);
+    // Anyone can register as an instructor, so the instructor role alone does not open these
+    // endpoints: they expose captured SQL and bind values, and EXPLAIN ANALYZE runs SQL against the
+    // database. Every one also needs the operator token from OPERATOR_TOKEN in an X-Operator-Token
+    // header. Unset disables them.
+    private static final String OPERATOR_TOKEN = System.getenv("OPERATOR_TOKEN");
+    private static final String OPERATOR_TOKEN_HEADER = "X-Operator-Token";
+
+    public void getCacheStats(Context ctx) {
+        if (requireOperator(ctx)) {
+            jsonResponse(ctx, Caches.stats());
+        }
+    }
+
+    public void getPasswordHashingStats(Context ctx) {
+        if (requireOperator(ctx)) {
+            jsonResponse(ctx, PasswordHashingPool.stats());
+        }
+    }
+
+    public void getSlowQueries(Context ctx) {
+        if (requireOperator(ctx)) {
+            jsonResponse(ctx, SlowQueryLog.entries());
+        }
+    }
+
+    public void explainSlowQuery(Context ctx) {
+        if (!requireOperator(ctx)) {
+            return;
+        }
+        try {
+            long id = Long.parseLong(ctx.pathParam("id"));
+            SlowQueryLog.Entry entry = SlowQueryLog.find(id).orElse(null);
+            if (entry == null) {
+                errorResponse(ctx, 404, "Slow query not found");
+                return;
+            }
+            SlowQueryLog.explain(entry);
+            jsonResponse(ctx, entry);
+        } catch (NumberFormatException e) {
+            errorResponse(ctx, 400, "Invalid slow query id");
+        } catch (IllegalArgumentException e) {
+            errorResponse(ctx, 400, e.getMessage());
+        } catch (Exception e) {
+            log.error("Error explaining slow query", e);
+            errorResponse(ctx, 500, "Error explaining slow query: " + e.getMessage());
+        }
+    }
+
+    // Answers 404 when no operator token is configured and 403 when the header does not match
+    private boolean requireOperator(Context ctx) {
+        if (OPERATOR_TOKEN == null || OPERATOR_TOKEN.isEmpty()) {
+            errorResponse(ctx, 404, "Not found");
+            return false;
+        }
+        String token = ctx.header(OPERATOR_TOKEN_HEADER);
+        if (token == null || !MessageDigest.isEqual(OPERATOR_TOKEN.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8))) {
+            log.warn("Rejected {} {} by user {} without a valid operator token", ctx.method(), ctx.path(), ctx.<Long>attribute("userId"));
+            errorResponse(ctx, 403, "Operator token required");
+            return false;
+        }
+        return true;
+    }
+}
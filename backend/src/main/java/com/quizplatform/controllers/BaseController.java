@@ -1,39 +1,79 @@
 package com.quizplatform.controllers;
 
+import com.quizplatform.utils.PageRequest;
+import com.quizplatform.utils.PasswordHashingPool.PasswordHashingOverloadedException;
+import com.quizplatform.utils.Json;
 import io.javalin.http.Context;
+import io.javalin.http.HandlerType;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 public abstract class BaseController {
-    protected final ObjectMapper objectMapper;
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final Logger log = LoggerFactory.getLogger(BaseController.class);
 
-    protected BaseController() {
-        this.objectMapper = new ObjectMapper();
-        objectMapper.registerModule(new JavaTimeModule());
-        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-    }
+    protected final ObjectMapper objectMapper = Json.MAPPER;
 
+    // GET responses are serialized straight into the response stream. Other methods are
+    // buffered once as bytes: their transaction commits in the after-handler, and the client
+    // must not see a success body before that commit has happened.
     protected void jsonResponse(Context ctx, Object data) {
         ctx.contentType("application/json");
         try {
-            String json = objectMapper.writeValueAsString(data);
-            ctx.result(json);
+            if (ctx.method() == HandlerType.GET) {
+                Json.write(ctx.outputStream(), data);
+            } else {
+                ctx.result(Json.toBytes(data));
+            }
         } catch (Exception e) {
-            e.printStackTrace();
-            ctx.status(500).json(new ErrorResponse("Error serializing response: " + e.getMessage()));
+            log.error("Error serializing response for {} {}", ctx.method(), ctx.path(), e);
+            if (!ctx.res().isCommitted()) {
+                ctx.res().resetBuffer();
+                ctx.status(500).json(new ErrorResponse("Error serializing response: " + e.getMessage()));
+            }
         }
     }
 
     protected <T> T parseBody(Context ctx, Class<T> clazz) {
         try {
-            return objectMapper.readValue(ctx.body(), clazz);
+            return objectMapper.readValue(ctx.bodyAsBytes(), clazz);
         } catch (Exception e) {
-            e.printStackTrace();
             throw new RuntimeException("Error parsing request body: " + e.getMessage(), e);
         }
     }
 
+    // Every list endpoint is paged: PageRequest.DEFAULT_LIMIT rows unless ?limit= asks for another size
+    protected PageRequest pageRequest(Context ctx) {
+        return PageRequest.of(ctx.queryParam("cursor"), ctx.queryParam("limit"));
+    }
+
+    // Drops the look-ahead row fetched by the repository and sets X-Next-Cursor on every page:
+    // the next page's cursor, or empty on the last page
+    protected <T> List<T> applyPage(Context ctx, PageRequest page, List<T> rows, Function<T, Long> sortKey) {
+        if (rows.size() <= page.getLimit()) {
+            ctx.header(NEXT_CURSOR_HEADER, "");
+            return rows;
+        }
+        List<T> items = rows.subList(0, page.getLimit());
+        ctx.header(NEXT_CURSOR_HEADER, PageRequest.encode(sortKey.apply(items.get(items.size() - 1))));
+        return items;
+    }
+
+    // 503 with Retry-After when password hashing is shedding load
+    public static void overloadedResponse(Context ctx, PasswordHashingOverloadedException e) {
+        ctx.header("Retry-After", String.valueOf(e.getRetryAfterSeconds()));
+        ctx.status(503).json(new ErrorResponse(e.getMessage()));
+    }
+
+    // {"error": ...}, the body role-gated routes have always answered 401 and 403 with
+    public static void accessErrorResponse(Context ctx, int status, String error) {
+        ctx.status(status).json(Map.of("error", error));
+    }
+
     protected void errorResponse(Context ctx, int status, String message) {
         ctx.status(status).json(new ErrorResponse(message));
     }
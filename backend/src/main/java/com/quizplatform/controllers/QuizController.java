@@ -1,10 +1,19 @@
 package com.quizplatform.controllers;
 
+import com.quizplatform.cache.AnswerKeyCache;
+import com.quizplatform.cache.QuizCatalogCache;
+import com.quizplatform.cache.QuizPayloadCache;
+import com.quizplatform.grading.AnswerKey;
+import com.quizplatform.metrics.Metrics;
 import com.quizplatform.models.*;
 import com.quizplatform.repositories.*;
+import com.quizplatform.utils.Compression;
+import com.quizplatform.utils.PageRequest;
 import com.quizplatform.utils.SecurityUtils;
 import io.javalin.http.Context;
 import io.javalin.http.Handler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import java.util.*;
 import java.sql.Timestamp;
 import java.time.Instant;
@@ -12,12 +21,30 @@ import java.time.Duration;
 import java.time.LocalDateTime;
 
 public class QuizController extends BaseController {
+    private static final Logger log = LoggerFactory.getLogger(QuizController.class);
+
     private final QuizRepository quizRepository;
     private final QuizSubmissionRepository submissionRepository;
+    private final QuizCatalogCache catalogCache;
+    private final AnswerKeyCache answerKeyCache;
+    private final QuizPayloadCache studentQuizCache;
 
     public QuizController() {
         this.quizRepository = new QuizRepository();
         this.submissionRepository = new QuizSubmissionRepository();
+        this.catalogCache = new QuizCatalogCache(quizRepository);
+        this.answerKeyCache = new AnswerKeyCache(quizRepository);
+        this.studentQuizCache = new QuizPayloadCache(quizRepository);
+    }
+
+    // Drops the cached student catalog and the quiz's cached answer key and student payload
+    // once the current request's changes are committed
+    private void quizChanged(Long quizId) {
+        UnitOfWork.afterCommit(() -> {
+            catalogCache.invalidate();
+            answerKeyCache.invalidate(quizId);
+            studentQuizCache.invalidate(quizId);
+        });
     }
 
     protected Long getCurrentUserId(Context ctx) {
@@ -33,8 +60,7 @@ public class QuizController extends BaseController {
             }
 
             Quiz quiz = parseBody(ctx, Quiz.class);
-            System.out.println("Received quiz data: " + quiz);
-            System.out.println("Questions in received quiz: " + (quiz.getQuestions() != null ? quiz.getQuestions().size() : 0));
+            log.debug("Received quiz '{}' with {} questions", quiz.getTitle(), quiz.getQuestions() != null ? quiz.getQuestions().size() : 0);
             
             if (quiz.getQuestions() == null || quiz.getQuestions().isEmpty()) {
                 errorResponse(ctx, 400, "Quiz must have at least one question");
@@ -43,10 +69,6 @@ public class QuizController extends BaseController {
 
 
             for (Question question : quiz.getQuestions()) {
-                System.out.println("Processing question: " + question.getQuestionText());
-                System.out.println("Question type: " + question.getType());
-                System.out.println("Answers for question: " + (question.getAnswers() != null ? question.getAnswers().size() : 0));
-                
                 if (question.getAnswers() == null || question.getAnswers().isEmpty()) {
                     errorResponse(ctx, 400, "Each question must have at least one answer");
                     return;
@@ -66,10 +88,10 @@ public class QuizController extends BaseController {
                 quiz.setTimeLimit(30); // Default 30 minutes
             }
             
-            System.out.println("Creating quiz with data: " + quiz);
             Quiz createdQuiz = quizRepository.create(quiz);
-            System.out.println("Created quiz: " + createdQuiz);
-            System.out.println("Questions in created quiz: " + (createdQuiz.getQuestions() != null ? createdQuiz.getQuestions().size() : 0));
+            quizChanged(createdQuiz.getId());
+            log.info("Instructor {} created quiz {} with {} questions", createdQuiz.getInstructorId(), createdQuiz.getId(),
+                createdQuiz.getQuestions() != null ? createdQuiz.getQuestions().size() : 0);
             
             Optional<Quiz> completeQuiz = quizRepository.findByIdWithAnswers(createdQuiz.getId());
             if (completeQuiz.isPresent()) {
@@ -78,7 +100,7 @@ public class QuizController extends BaseController {
                 jsonResponse(ctx, createdQuiz);
             }
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Error creating quiz", e);
             errorResponse(ctx, 500, "Error creating quiz: " + e.getMessage());
         }
     }
@@ -86,17 +108,33 @@ public class QuizController extends BaseController {
     public void getQuizzes(Context ctx) {
         try {
             User.UserRole userRole = (User.UserRole) ctx.attribute("userRole");
+            PageRequest page = pageRequest(ctx);
+
+            // ?view=summary returns list rows without questions; full questions come from GET /api/quizzes/{id}
+            if ("summary".equals(ctx.queryParam("view"))) {
+                List<QuizSummary> summaries;
+                if (userRole == User.UserRole.INSTRUCTOR) {
+                    summaries = quizRepository.findSummariesByInstructorId(getCurrentUserId(ctx), page.getAfter(), page.fetchSize());
+                } else {
+                    summaries = catalogCache.findPublishedSummaries(page.getAfter(), page.fetchSize());
+                }
+                jsonResponse(ctx, applyPage(ctx, page, summaries, QuizSummary::getId));
+                return;
+            }
+
             List<Quiz> quizzes;
             
             if (userRole == User.UserRole.INSTRUCTOR) {
-                quizzes = quizRepository.findByInstructorId(getCurrentUserId(ctx));
+                quizzes = quizRepository.findByInstructorId(getCurrentUserId(ctx), page.getAfter(), page.fetchSize());
             } else {
-                quizzes = quizRepository.findPublishedQuizzes();
+                quizzes = catalogCache.findPublishedQuizzes(page.getAfter(), page.fetchSize());
             }
             
-            jsonResponse(ctx, quizzes);
+            jsonResponse(ctx, applyPage(ctx, page, quizzes, Quiz::getId));
+        } catch (IllegalArgumentException e) {
+            errorResponse(ctx, 400, e.getMessage());
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Error fetching quizzes", e);
             errorResponse(ctx, 500, "Error fetching quizzes: " + e.getMessage());
         }
     }
@@ -108,25 +146,20 @@ public class QuizController extends BaseController {
             Object userRoleObj = ctx.attribute("userRole");
             User.UserRole role = userRoleObj != null ? User.UserRole.valueOf(userRoleObj.toString()) : null;
             
-            System.out.println("=== Quiz Debug ===");
-            System.out.println("Request path: " + ctx.path());
-            System.out.println("Quiz ID: " + quizId);
-            System.out.println("User ID: " + userId);
-            System.out.println("User Role: " + role);
-            
-            Optional<Quiz> quiz;
-            if (role == User.UserRole.INSTRUCTOR) {
-                quiz = quizRepository.findByIdWithAnswers(quizId);
-            } else {
-                quiz = quizRepository.findById(quizId);
+            log.debug("Fetching quiz {} for user {} ({})", quizId, userId, role);
+
+            if (role != User.UserRole.INSTRUCTOR) {
+                getStudentQuiz(ctx, quizId);
+                return;
             }
-            
+
+            Optional<Quiz> quiz = quizRepository.findByIdWithAnswers(quizId);
             if (quiz.isPresent()) {
-                if (role == User.UserRole.INSTRUCTOR && !quiz.get().getInstructorId().equals(userId)) {
+                if (!quiz.get().getInstructorId().equals(userId)) {
                     ctx.status(403).json(Map.of("error", "You don't have permission to view this quiz"));
                     return;
                 }
-                ctx.json(quiz.get());
+                jsonResponse(ctx, quiz.get());
             } else {
                 ctx.status(404).json(Map.of("error", "Quiz not found"));
             }
@@ -135,6 +168,33 @@ public class QuizController extends BaseController {
         }
     }
 
+    // The student view is the same for every student: serve the cached bytes, or 304 when the
+    // client already holds the current version
+    private void getStudentQuiz(Context ctx, Long quizId) {
+        Optional<QuizPayloadCache.Payload> payload = studentQuizCache.get(quizId);
+        if (!payload.isPresent()) {
+            ctx.status(404).json(Map.of("error", "Quiz not found"));
+            return;
+        }
+
+        // Pick the variant first: the ETag differs per content coding. Serving the cached compressed
+        // variant with Content-Encoding set keeps Javalin from compressing again.
+        QuizPayloadCache.Variant variant = payload.get().getVariant(Compression.negotiate(ctx.header("Accept-Encoding")));
+        ctx.header("ETag", variant.getEtag());
+        ctx.header("Cache-Control", "private, no-cache");
+        ctx.header("Vary", "Accept-Encoding");
+        if (variant.matches(ctx.header("If-None-Match"))) {
+            ctx.status(304);
+            return;
+        }
+
+        if (variant.getContentEncoding() != null) {
+            ctx.header("Content-Encoding", variant.getContentEncoding());
+        }
+        ctx.contentType("application/json");
+        ctx.result(variant.getBody());
+    }
+
     public void updateQuiz(Context ctx) {
         try {
             Long quizId = Long.parseLong(ctx.pathParam("id"));
@@ -155,9 +215,10 @@ public class QuizController extends BaseController {
             updatedQuiz.setInstructorId(existingQuiz.getInstructorId());
             
             Quiz savedQuiz = quizRepository.update(updatedQuiz);
+            quizChanged(quizId);
             jsonResponse(ctx, savedQuiz);
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Error updating quiz", e);
             errorResponse(ctx, 500, "Error updating quiz: " + e.getMessage());
         }
     }
@@ -180,9 +241,10 @@ public class QuizController extends BaseController {
                 return;
             }
             quizRepository.delete(quizId);
+            quizChanged(quizId);
             ctx.status(204);
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Error deleting quiz", e);
             errorResponse(ctx, 500, "Error deleting quiz: " + e.getMessage());
         }
     }
@@ -204,9 +266,10 @@ public class QuizController extends BaseController {
             
             question.setQuizId(quizId);
             Question createdQuestion = quizRepository.addQuestion(question);
+            quizChanged(quizId);
             jsonResponse(ctx, createdQuestion);
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Error adding question", e);
             errorResponse(ctx, 500, "Error adding question: " + e.getMessage());
         }
     }
@@ -228,8 +291,6 @@ public class QuizController extends BaseController {
             }
 
             Quiz quiz = quizOpt.get();
-            System.out.println("Publishing quiz: " + quiz.getId());
-            System.out.println("Questions count: " + (quiz.getQuestions() != null ? quiz.getQuestions().size() : 0));
 
             // Validate that quiz has questions
             if (quiz.getQuestions() == null || quiz.getQuestions().isEmpty()) {
@@ -239,10 +300,6 @@ public class QuizController extends BaseController {
 
             // Validate each question has answers
             for (Question question : quiz.getQuestions()) {
-                System.out.println("Validating question: " + question.getId());
-                System.out.println("Question type: " + question.getType());
-                System.out.println("Answers count: " + (question.getAnswers() != null ? question.getAnswers().size() : 0));
-                
                 if (question.getAnswers() == null || question.getAnswers().isEmpty()) {
                     errorResponse(ctx, 400, "Cannot publish quiz: Each question must have at least one answer");
                     return;
@@ -253,8 +310,7 @@ public class QuizController extends BaseController {
                     long correctAnswersCount = question.getAnswers().stream()
                         .filter(Answer::getIsCorrect)
                         .count();
-                    System.out.println("Correct answers count: " + correctAnswersCount);
-                    
+
                     if (correctAnswersCount != 1) {
                         errorResponse(ctx, 400, "Cannot publish quiz: Multiple choice and true/false questions must have exactly one correct answer");
                     return;
@@ -264,9 +320,11 @@ public class QuizController extends BaseController {
 
             quiz.setIsPublished(true);
             Quiz updatedQuiz = quizRepository.update(quiz);
+            quizChanged(quizId);
+            log.info("Published quiz {}", quizId);
             jsonResponse(ctx, updatedQuiz);
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Error publishing quiz", e);
             errorResponse(ctx, 500, "Error publishing quiz: " + e.getMessage());
         }
     }
@@ -275,36 +333,40 @@ public class QuizController extends BaseController {
         try {
             Long quizId = Long.parseLong(ctx.pathParam("id"));
             Long studentId = getCurrentUserId(ctx);
-            
-            System.out.println("Starting quiz " + quizId + " for student " + studentId);
-            
+
             Optional<Quiz> quiz = quizRepository.findById(quizId);
             if (!quiz.isPresent()) {
-                System.out.println("Quiz " + quizId + " not found");
                 ctx.status(404).json(Map.of("error", "Quiz not found"));
                 return;
             }
             if (!quiz.get().getIsPublished()) {
-                System.out.println("Quiz " + quizId + " is not published");
                 ctx.status(403).json(Map.of("error", "Quiz is not published"));
                 return;
             }
 
-            System.out.println("Creating submission for quiz " + quizId);
-            QuizSubmission submission = new QuizSubmission();
-            submission.setQuizId(quizId);
-            submission.setStudentId(studentId);
-            submission.setScore(0);
-            submission.setStartedAt(LocalDateTime.now());
-            submission.setCompletedAt(null);
-            submission.setSubmittedAt(null);
-            submission.setAnswers(new HashMap<>());
+            // Only one open attempt per student and quiz; resume it instead of starting over
+            Optional<QuizSubmission> activeSubmission = submissionRepository.findActiveSubmission(studentId, quizId);
+            if (activeSubmission.isPresent()) {
+                log.debug("Student {} resumes submission {} for quiz {}", studentId, activeSubmission.get().getId(), quizId);
+                jsonResponse(ctx, activeSubmission.get());
+                return;
+            }
 
-            QuizSubmission createdSubmission = submissionRepository.create(submission);
-            System.out.println("Created submission with ID: " + createdSubmission.getId());
-            ctx.json(createdSubmission);
+            Optional<QuizSubmission> createdSubmission = submissionRepository.startSubmission(studentId, quizId, LocalDateTime.now());
+            if (createdSubmission.isEmpty()) {
+                // A concurrent start for the same student and quiz won; resume its attempt
+                activeSubmission = submissionRepository.findActiveSubmission(studentId, quizId);
+                if (activeSubmission.isEmpty()) {
+                    throw new IllegalStateException("Open submission disappeared while starting quiz " + quizId);
+                }
+                jsonResponse(ctx, activeSubmission.get());
+                return;
+            }
+            Metrics.counter("quiz_attempts_started_total", "Quiz attempts started by students").increment();
+            log.debug("Student {} started submission {} for quiz {}", studentId, createdSubmission.get().getId(), quizId);
+            jsonResponse(ctx, createdSubmission.get());
         } catch (Exception e) {
-            e.printStackTrace(); 
+            log.error("Error starting quiz", e);
             ctx.status(500).json(Map.of("error", "Error starting quiz: " + e.getMessage()));
         }
     }
@@ -314,19 +376,15 @@ public class QuizController extends BaseController {
             Long quizId = Long.parseLong(ctx.pathParam("id"));
             Long studentId = getCurrentUserId(ctx);
             
-            List<QuizSubmission> submissions = submissionRepository.findByStudentId(studentId);
-            QuizSubmission submission = submissions.stream()
-                .filter(s -> s.getQuizId().equals(quizId) && s.getCompletedAt() == null)
-                .findFirst()
-                .orElse(null);
+            QuizSubmission submission = submissionRepository.findActiveSubmission(studentId, quizId).orElse(null);
 
             if (submission == null) {
                 ctx.status(404).json(Map.of("error", "No active submission found for this quiz"));
                 return;
             }
 
-            Optional<Quiz> quiz = quizRepository.findByIdWithAnswers(quizId);
-            if (!quiz.isPresent()) {
+            Optional<AnswerKey> answerKey = answerKeyCache.get(quizId);
+            if (!answerKey.isPresent()) {
                 ctx.status(404).json(Map.of("error", "Quiz not found"));
                 return;
             }
@@ -350,105 +408,34 @@ public class QuizController extends BaseController {
             }
             submission.setAnswers(answers);
 
-            int totalScore = calculateScore(quiz.get(), answers);
+            int totalScore = answerKey.get().grade(answers);
+            log.debug("Graded submission {} for quiz {}: {} points", submission.getId(), quizId, totalScore);
             submission.setScore(totalScore);
             submission.setCompletedAt(LocalDateTime.now());
             submission.setSubmittedAt(LocalDateTime.now());
 
             QuizSubmission updatedSubmission = submissionRepository.update(submission);
-            ctx.json(updatedSubmission);
+            Metrics.counter("quiz_submissions_graded_total", "Quiz submissions graded").increment();
+            jsonResponse(ctx, updatedSubmission);
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Error submitting quiz", e);
             ctx.status(500).json(Map.of("error", "Error submitting quiz: " + e.getMessage()));
         }
     }
 
-    private int calculateScore(Quiz quiz, Map<Long, Object> submittedAnswers) {
-        System.out.println("=== Starting score calculation ===");
-        System.out.println("Quiz ID: " + quiz.getId());
-        System.out.println("Submitted answers: " + submittedAnswers);
-        
-        int totalScore = 0;
-        for (Question question : quiz.getQuestions()) {
-            System.out.println("\nProcessing question ID: " + question.getId());
-            System.out.println("Question type: " + question.getType());
-            System.out.println("Question points: " + question.getPoints());
-            
-            Object selectedAnswer = submittedAnswers.get(question.getId());
-            System.out.println("Selected answer: " + selectedAnswer);
-            
-            if (selectedAnswer != null) {
-                switch (question.getType()) {
-                    case MULTIPLE_CHOICE:
-                    case TRUE_FALSE:
-                        try {
-                            Long selectedAnswerId = Long.valueOf(selectedAnswer.toString());
-                            System.out.println("Selected answer ID: " + selectedAnswerId);
-                            
-                            for (Answer a : question.getAnswers()) {
-                                System.out.println("Checking answer ID: " + a.getId());
-                                System.out.println("Answer isCorrect: " + a.getIsCorrect());
-                                
-                                if (a.getId() != null && a.getId().longValue() == selectedAnswerId.longValue()) {
-                                    System.out.println("Answer IDs match!");
-                                    if (a.getIsCorrect() != null && a.getIsCorrect()) {
-                                        System.out.println("Answer is correct! Adding " + question.getPoints() + " points");
-                                        totalScore += question.getPoints();
-                                    } else {
-                                        System.out.println("Answer is not correct");
-                                    }
-                                }
-                            }
-                        } catch (NumberFormatException e) {
-                            System.out.println("Invalid answer ID format for multiple choice question");
-                        }
-                        break;
-                        
-                    case SHORT_ANSWER:
-                        String submittedText = selectedAnswer.toString().trim().toLowerCase();
-                        System.out.println("Submitted text: " + submittedText);
-                        
-                        for (Answer a : question.getAnswers()) {
-                            String correctText = a.getAnswerText().trim().toLowerCase();
-                            System.out.println("Correct text: " + correctText);
-                            
-                            if (correctText.equals(submittedText)) {
-                                System.out.println("Text matches! Adding " + question.getPoints() + " points");
-                                totalScore += question.getPoints();
-                                break;
-                            }
-                        }
-                        break;
-                        
-                    default:
-                        System.out.println("Unsupported question type: " + question.getType());
-                }
-            } else {
-                System.out.println("No answer selected for this question");
-            }
-        }
-        
-        System.out.println("\n=== Final score: " + totalScore + " ===");
-        return totalScore;
-    }
-
     public void getSubmission(Context ctx) {
         try {
             Long quizId = Long.parseLong(ctx.pathParam("id"));
             Long studentId = getCurrentUserId(ctx);
             
-            List<QuizSubmission> submissions = submissionRepository.findByStudentId(studentId);
-            QuizSubmission submission = submissions.stream()
-                .filter(s -> s.getQuizId().equals(quizId))
-                .findFirst()
-                .orElse(null);
+            QuizSubmission submission = submissionRepository.findLatestByStudentAndQuiz(studentId, quizId).orElse(null);
 
             if (submission == null) {
                 ctx.status(404).json(Map.of("error", "No submission found for this quiz"));
                 return;
             }
 
-            ctx.json(submission);
+            jsonResponse(ctx, submission);
         } catch (Exception e) {
             ctx.status(500).json(Map.of("error", "Error getting submission: " + e.getMessage()));
         }
@@ -462,7 +449,7 @@ public class QuizController extends BaseController {
                 ctx.status(404).json(Map.of("error", "Submission not found"));
                 return;
             }
-            ctx.json(submission);
+            jsonResponse(ctx, submission);
         } catch (Exception e) {
             ctx.status(500).json(Map.of("error", "Error getting submission: " + e.getMessage()));
         }
@@ -474,36 +461,28 @@ public class QuizController extends BaseController {
             Long instructorId = getCurrentUserId(ctx);
             User.UserRole userRole = (User.UserRole) ctx.attribute("userRole");
             
-            System.out.println("=== Quiz Attempts Debug ===");
-            System.out.println("Request path: " + ctx.path());
-            System.out.println("Quiz ID: " + quizId);
-            System.out.println("Instructor ID: " + instructorId);
-            System.out.println("User Role: " + userRole);
-            System.out.println("Auth Header: " + ctx.header("Authorization"));
+            PageRequest page = pageRequest(ctx);
+            
+            log.debug("Quiz attempts for quiz {} requested by user {} ({})", quizId, instructorId, userRole);
             
             Quiz quiz = quizRepository.findById(quizId).orElse(null);
             if (quiz == null) {
-                System.out.println("Quiz " + quizId + " not found");
                 errorResponse(ctx, 404, "Quiz not found");
                 return;
             }
             
-            System.out.println("Found quiz: " + quiz.getTitle() + " (instructor: " + quiz.getInstructorId() + ")");
-            System.out.println("Current instructor ID: " + instructorId);
-            System.out.println("Quiz instructor ID: " + quiz.getInstructorId());
-            System.out.println("IDs match: " + quiz.getInstructorId().equals(instructorId));
-            
             if (!quiz.getInstructorId().equals(instructorId)) {
-                System.out.println("Permission denied: instructor " + instructorId + " does not own quiz " + quizId);
+                log.debug("Instructor {} does not own quiz {}", instructorId, quizId);
                 errorResponse(ctx, 403, "You don't have permission to view attempts for this quiz");
                 return;
             }
             
-            List<QuizSubmission> submissions = submissionRepository.findByQuizId(quizId);
-            System.out.println("Found " + submissions.size() + " submissions for quiz " + quizId);
+            List<QuizSubmission> submissions = findSubmissionsPage(ctx, quizId, page);
             jsonResponse(ctx, submissions);
+        } catch (IllegalArgumentException e) {
+            errorResponse(ctx, 400, e.getMessage());
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Error getting quiz attempts", e);
             errorResponse(ctx, 500, "Error getting quiz attempts: " + e.getMessage());
         }
     }
@@ -514,49 +493,24 @@ public class QuizController extends BaseController {
             Long instructorId = getCurrentUserId(ctx);
             User.UserRole userRole = (User.UserRole) ctx.attribute("userRole");
             
-            System.out.println("=== Quiz Analytics Debug ===");
-            System.out.println("Request path: " + ctx.path());
-            System.out.println("Quiz ID: " + quizId);
-            System.out.println("Instructor ID: " + instructorId);
-            System.out.println("User Role: " + userRole);
+            log.debug("Quiz analytics for quiz {} requested by user {} ({})", quizId, instructorId, userRole);
             
             Quiz quiz = quizRepository.findById(quizId).orElse(null);
             if (quiz == null) {
-                System.out.println("Quiz " + quizId + " not found");
                 errorResponse(ctx, 404, "Quiz not found");
                 return;
             }
             
             if (!quiz.getInstructorId().equals(instructorId)) {
-                System.out.println("Permission denied: instructor " + instructorId + " does not own quiz " + quizId);
+                log.debug("Instructor {} does not own quiz {}", instructorId, quizId);
                 errorResponse(ctx, 403, "You don't have permission to view analytics for this quiz");
                 return;
             }
             
-            List<QuizSubmission> submissions = submissionRepository.findByQuizId(quizId);
-            System.out.println("Found " + submissions.size() + " submissions for quiz " + quizId);
-            
-            double avgScore = submissions.stream().mapToInt(QuizSubmission::getScore).average().orElse(0.0);
-            int totalAttempts = submissions.size();
-            long completedAttempts = submissions.stream().filter(s -> s.getCompletedAt() != null).count();
-            double completionRate = totalAttempts > 0 ? (double) completedAttempts / totalAttempts : 0.0;
-            
-            double avgTimeSpent = submissions.stream()
-                .filter(s -> s.getStartedAt() != null && s.getCompletedAt() != null)
-                .mapToDouble(s -> java.time.Duration.between(s.getStartedAt(), s.getCompletedAt()).toMinutes())
-                .average()
-                .orElse(0.0);
-            
-            Map<String, Object> analytics = new HashMap<>();
-            analytics.put("quizId", quizId);
-            analytics.put("averageScore", avgScore);
-            analytics.put("totalAttempts", totalAttempts);
-            analytics.put("completionRate", completionRate);
-            analytics.put("averageTimeSpentMinutes", avgTimeSpent);
-            
+            QuizAnalytics analytics = submissionRepository.findAnalytics(quizId);
             jsonResponse(ctx, analytics);
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Error getting quiz analytics", e);
             errorResponse(ctx, 500, "Error getting quiz analytics: " + e.getMessage());
         }
     }
@@ -567,27 +521,23 @@ public class QuizController extends BaseController {
             Long instructorId = getCurrentUserId(ctx);
             User.UserRole userRole = (User.UserRole) ctx.attribute("userRole");
             
-            System.out.println("=== Quiz Report Debug ===");
-            System.out.println("Request path: " + ctx.path());
-            System.out.println("Quiz ID: " + quizId);
-            System.out.println("Instructor ID: " + instructorId);
-            System.out.println("User Role: " + userRole);
+            PageRequest page = pageRequest(ctx);
+            
+            log.debug("Quiz report for quiz {} requested by user {} ({})", quizId, instructorId, userRole);
             
             Quiz quiz = quizRepository.findById(quizId).orElse(null);
             if (quiz == null) {
-                System.out.println("Quiz " + quizId + " not found");
                 errorResponse(ctx, 404, "Quiz not found");
                 return;
             }
             
             if (!quiz.getInstructorId().equals(instructorId)) {
-                System.out.println("Permission denied: instructor " + instructorId + " does not own quiz " + quizId);
+                log.debug("Instructor {} does not own quiz {}", instructorId, quizId);
                 errorResponse(ctx, 403, "You don't have permission to view the report for this quiz");
                 return;
             }
             
-            List<QuizSubmission> submissions = submissionRepository.findByQuizId(quizId);
-            System.out.println("Found " + submissions.size() + " submissions for quiz " + quizId);
+            List<QuizSubmission> submissions = findSubmissionsPage(ctx, quizId, page);
             
             List<Map<String, Object>> reportData = new ArrayList<>();
             for (QuizSubmission submission : submissions) {
@@ -603,9 +553,17 @@ public class QuizController extends BaseController {
             }
             
             jsonResponse(ctx, reportData);
+        } catch (IllegalArgumentException e) {
+            errorResponse(ctx, 400, e.getMessage());
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Error generating quiz report", e);
             errorResponse(ctx, 500, "Error generating quiz report: " + e.getMessage());
         }
     }
-} 
\ No newline at end of file
+
+    // Submissions of a quiz, keyset-paged newest first
+    private List<QuizSubmission> findSubmissionsPage(Context ctx, Long quizId, PageRequest page) {
+        List<QuizSubmission> rows = submissionRepository.findByQuizId(quizId, page.getAfter(), page.fetchSize());
+        return applyPage(ctx, page, rows, QuizSubmission::getId);
+    }
+}
@@ -2,12 +2,20 @@ package com.quizplatform.controllers;
 
 import com.quizplatform.models.User;
 import com.quizplatform.repositories.UserRepository;
+import com.quizplatform.utils.PageRequest;
+import com.quizplatform.utils.PasswordHashingPool.PasswordHashingOverloadedException;
 import com.quizplatform.utils.SecurityUtils;
+import com.quizplatform.utils.TokenRevocationList;
 import io.javalin.http.Context;
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class UserController extends BaseController {
+    private static final Logger log = LoggerFactory.getLogger(UserController.class);
+
     private final UserRepository userRepository;
 
     public UserController() {
@@ -72,8 +80,10 @@ public class UserController extends BaseController {
                 "user", createdUser,
                 "token", token
             ));
+        } catch (PasswordHashingOverloadedException e) {
+            overloadedResponse(ctx, e);
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Error registering user", e);
             errorResponse(ctx, 500, "Error registering user: " + e.getMessage());
         }
     }
@@ -93,7 +103,7 @@ public class UserController extends BaseController {
                 return;
             }
 
-            userRepository.findByEmail(email)
+            userRepository.findCredentialsByEmail(email)
                 .filter(user -> SecurityUtils.verifyPassword(password, user.getPassword()))
                 .ifPresentOrElse(
                     user -> {
@@ -105,8 +115,10 @@ public class UserController extends BaseController {
                     },
                     () -> errorResponse(ctx, 401, "Invalid email or password")
                 );
+        } catch (PasswordHashingOverloadedException e) {
+            overloadedResponse(ctx, e);
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Error during login", e);
             errorResponse(ctx, 500, "Error during login: " + e.getMessage());
         }
     }
@@ -149,18 +161,30 @@ public class UserController extends BaseController {
         User updatedUser = parseBody(ctx, User.class);
         updatedUser.setId(userId);
 
-        userRepository.findById(userId)
+        userRepository.findCredentialsById(userId)
             .ifPresentOrElse(
                 existingUser -> {
                     // Don't allow role changes through profile update
                     updatedUser.setRole(existingUser.getRole());
                     // Hash password if it's being updated
-                    if (updatedUser.getPassword() != null && !updatedUser.getPassword().equals(existingUser.getPassword())) {
+                    boolean passwordChanged = updatedUser.getPassword() != null && !updatedUser.getPassword().equals(existingUser.getPassword());
+                    if (passwordChanged) {
                         updatedUser.setPassword(SecurityUtils.hashPassword(updatedUser.getPassword()));
                     } else {
                         updatedUser.setPassword(existingUser.getPassword());
                     }
                     User savedUser = userRepository.update(updatedUser);
+                    if (passwordChanged) {
+                        // Sessions opened with the old password end here, including the current one.
+                        // Other instances reject them within TokenRevocationList.POLL_INTERVAL. The
+                        // caller keeps going with a new token, answered in the same shape as login.
+                        Instant revokedBefore = TokenRevocationList.revokeUser(userId, "PASSWORD_CHANGED");
+                        jsonResponse(ctx, Map.of(
+                            "user", savedUser,
+                            "token", SecurityUtils.generateToken(savedUser, revokedBefore)
+                        ));
+                        return;
+                    }
                     jsonResponse(ctx, savedUser);
                 },
                 () -> errorResponse(ctx, 404, "User not found")
@@ -175,8 +199,16 @@ public class UserController extends BaseController {
             return;
         }
 
-        List<User> users = userRepository.findAll();
-        jsonResponse(ctx, users);
+        PageRequest page;
+        try {
+            page = pageRequest(ctx);
+        } catch (IllegalArgumentException e) {
+            errorResponse(ctx, 400, e.getMessage());
+            return;
+        }
+
+        List<User> users = userRepository.findAll(page.getAfter(), page.fetchSize());
+        jsonResponse(ctx, applyPage(ctx, page, users, User::getId));
     }
 
     public void deleteUser(Context ctx) {
@@ -192,6 +224,8 @@ public class UserController extends BaseController {
             .ifPresentOrElse(
                 user -> {
                     userRepository.delete(userId);
+                    // Rejected here once the delete commits, elsewhere within TokenRevocationList.POLL_INTERVAL
+                    TokenRevocationList.revokeUser(userId, "USER_DELETED");
                     ctx.status(204);
                 },
                 () -> errorResponse(ctx, 404, "User not found")
@@ -0,0 +1,51 @@
+package com.quizplatform.dao;
+
+import com.quizplatform.models.Answer;
+import org.jdbi.v3.core.mapper.RowMapper;
+import org.jdbi.v3.core.statement.StatementContext;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+// Maps answer rows from the answers table, or from a LEFT JOIN where the ID columns are aliased.
+// Returns null for join rows without an answer.
+public class AnswerMapper implements RowMapper<Answer> {
+    private final String idColumn;
+    private final String questionIdColumn;
+
+    public AnswerMapper() {
+        this("id", "question_id");
+    }
+
+    public AnswerMapper(String idColumn, String questionIdColumn) {
+        this.idColumn = idColumn;
+        this.questionIdColumn = questionIdColumn;
+    }
+
+    @Override
+    public Answer map(ResultSet rs, StatementContext ctx) throws SQLException {
+        return specialize(rs, ctx).map(rs, ctx);
+    }
+
+    @Override
+    public RowMapper<Answer> specialize(ResultSet rs, StatementContext ctx) throws SQLException {
+        int id = rs.findColumn(idColumn);
+        int questionId = rs.findColumn(questionIdColumn);
+        int answerText = rs.findColumn("answer_text");
+        int isCorrect = rs.findColumn("is_correct");
+        int answerOrder = rs.findColumn("answer_order");
+        return (row, context) -> {
+            long answerId = row.getLong(id);
+            if (row.wasNull()) {
+                return null;
+            }
+            Answer answer = new Answer();
+            answer.setId(answerId);
+            answer.setQuestionId(row.getLong(questionId));
+            answer.setAnswerText(row.getString(answerText));
+            answer.setIsCorrect(row.getBoolean(isCorrect));
+            answer.setAnswerOrder(row.getInt(answerOrder));
+            return answer;
+        };
+    }
+}
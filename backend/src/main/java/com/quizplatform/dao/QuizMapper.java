@@ -0,0 +1,42 @@
+package com.quizplatform.dao;
+
+import com.quizplatform.models.Quiz;
+import org.jdbi.v3.core.mapper.RowMapper;
+import org.jdbi.v3.core.statement.StatementContext;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+
+// Column indexes are resolved once per result set in specialize(), not by name on every row
+public class QuizMapper implements RowMapper<Quiz> {
+    @Override
+    public Quiz map(ResultSet rs, StatementContext ctx) throws SQLException {
+        return specialize(rs, ctx).map(rs, ctx);
+    }
+
+    @Override
+    public RowMapper<Quiz> specialize(ResultSet rs, StatementContext ctx) throws SQLException {
+        int id = rs.findColumn("id");
+        int title = rs.findColumn("title");
+        int description = rs.findColumn("description");
+        int instructorId = rs.findColumn("instructor_id");
+        int timeLimit = rs.findColumn("time_limit");
+        int isPublished = rs.findColumn("is_published");
+        int createdAt = rs.findColumn("created_at");
+        int updatedAt = rs.findColumn("updated_at");
+        return (row, context) -> {
+            Quiz quiz = new Quiz();
+            quiz.setId(row.getLong(id));
+            quiz.setTitle(row.getString(title));
+            quiz.setDescription(row.getString(description));
+            quiz.setInstructorId(row.getLong(instructorId));
+            quiz.setTimeLimit(row.getInt(timeLimit));
+            quiz.setIsPublished(row.getBoolean(isPublished));
+            quiz.setCreatedAt(row.getTimestamp(createdAt).toLocalDateTime());
+            quiz.setUpdatedAt(row.getTimestamp(updatedAt).toLocalDateTime());
+            quiz.setQuestions(new ArrayList<>());
+            return quiz;
+        };
+    }
+}
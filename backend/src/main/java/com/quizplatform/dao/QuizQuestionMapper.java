@@ -0,0 +1,38 @@
+package com.quizplatform.dao;
+
+import com.quizplatform.models.Question;
+import org.jdbi.v3.core.mapper.RowMapper;
+import org.jdbi.v3.core.statement.StatementContext;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+
+// Question as served by the quiz endpoints; answers are filled in by the caller
+public class QuizQuestionMapper implements RowMapper<Question> {
+    @Override
+    public Question map(ResultSet rs, StatementContext ctx) throws SQLException {
+        return specialize(rs, ctx).map(rs, ctx);
+    }
+
+    @Override
+    public RowMapper<Question> specialize(ResultSet rs, StatementContext ctx) throws SQLException {
+        int id = rs.findColumn("id");
+        int quizId = rs.findColumn("quiz_id");
+        int questionText = rs.findColumn("question_text");
+        int questionType = rs.findColumn("question_type");
+        int points = rs.findColumn("points");
+        int questionOrder = rs.findColumn("question_order");
+        return (row, context) -> {
+            Question question = new Question();
+            question.setId(row.getLong(id));
+            question.setQuizId(row.getLong(quizId));
+            question.setQuestionText(row.getString(questionText));
+            question.setType(Question.QuestionType.valueOf(row.getString(questionType)));
+            question.setPoints(row.getInt(points));
+            question.setOrder(row.getInt(questionOrder));
+            question.setAnswers(new ArrayList<>());
+            return question;
+        };
+    }
+}
@@ -0,0 +1,43 @@
+package com.quizplatform.dao;
+
+import com.quizplatform.models.QuizSubmission;
+import org.jdbi.v3.core.mapper.RowMapper;
+import org.jdbi.v3.core.statement.StatementContext;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+// Submission row without answers; QuizSubmissionRepository attaches them in bulk
+public class QuizSubmissionMapper implements RowMapper<QuizSubmission> {
+    @Override
+    public QuizSubmission map(ResultSet rs, StatementContext ctx) throws SQLException {
+        return specialize(rs, ctx).map(rs, ctx);
+    }
+
+    @Override
+    public RowMapper<QuizSubmission> specialize(ResultSet rs, StatementContext ctx) throws SQLException {
+        int id = rs.findColumn("id");
+        int quizId = rs.findColumn("quiz_id");
+        int studentId = rs.findColumn("student_id");
+        int score = rs.findColumn("score");
+        int startedAt = rs.findColumn("started_at");
+        int completedAt = rs.findColumn("completed_at");
+        int submittedAt = rs.findColumn("submitted_at");
+        return (row, context) -> {
+            QuizSubmission submission = new QuizSubmission();
+            submission.setId(row.getLong(id));
+            submission.setQuizId(row.getLong(quizId));
+            submission.setStudentId(row.getLong(studentId));
+            submission.setScore(row.getInt(score));
+            submission.setStartedAt(row.getTimestamp(startedAt).toLocalDateTime());
+
+            Timestamp completed = row.getTimestamp(completedAt);
+            submission.setCompletedAt(completed != null ? completed.toLocalDateTime() : null);
+
+            Timestamp submitted = row.getTimestamp(submittedAt);
+            submission.setSubmittedAt(submitted != null ? submitted.toLocalDateTime() : null);
+            return submission;
+        };
+    }
+}
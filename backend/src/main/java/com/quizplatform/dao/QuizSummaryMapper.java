@@ -0,0 +1,43 @@
+package com.quizplatform.dao;
+
+import com.quizplatform.models.QuizSummary;
+import org.jdbi.v3.core.mapper.RowMapper;
+import org.jdbi.v3.core.statement.StatementContext;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+public class QuizSummaryMapper implements RowMapper<QuizSummary> {
+    @Override
+    public QuizSummary map(ResultSet rs, StatementContext ctx) throws SQLException {
+        return specialize(rs, ctx).map(rs, ctx);
+    }
+
+    @Override
+    public RowMapper<QuizSummary> specialize(ResultSet rs, StatementContext ctx) throws SQLException {
+        int id = rs.findColumn("id");
+        int title = rs.findColumn("title");
+        int description = rs.findColumn("description");
+        int instructorId = rs.findColumn("instructor_id");
+        int timeLimit = rs.findColumn("time_limit");
+        int isPublished = rs.findColumn("is_published");
+        int createdAt = rs.findColumn("created_at");
+        int updatedAt = rs.findColumn("updated_at");
+        int questionCount = rs.findColumn("question_count");
+        int totalPoints = rs.findColumn("total_points");
+        return (row, context) -> {
+            QuizSummary summary = new QuizSummary();
+            summary.setId(row.getLong(id));
+            summary.setTitle(row.getString(title));
+            summary.setDescription(row.getString(description));
+            summary.setInstructorId(row.getLong(instructorId));
+            summary.setTimeLimit(row.getInt(timeLimit));
+            summary.setIsPublished(row.getBoolean(isPublished));
+            summary.setCreatedAt(row.getTimestamp(createdAt).toLocalDateTime());
+            summary.setUpdatedAt(row.getTimestamp(updatedAt).toLocalDateTime());
+            summary.setQuestionCount(row.getInt(questionCount));
+            summary.setTotalPoints(row.getInt(totalPoints));
+            return summary;
+        };
+    }
+}
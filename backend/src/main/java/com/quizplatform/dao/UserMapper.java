@@ -0,0 +1,39 @@
+package com.quizplatform.dao;
+
+import com.quizplatform.models.User;
+import org.jdbi.v3.core.mapper.RowMapper;
+import org.jdbi.v3.core.statement.StatementContext;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+public class UserMapper implements RowMapper<User> {
+    @Override
+    public User map(ResultSet rs, StatementContext ctx) throws SQLException {
+        return specialize(rs, ctx).map(rs, ctx);
+    }
+
+    @Override
+    public RowMapper<User> specialize(ResultSet rs, StatementContext ctx) throws SQLException {
+        int id = rs.findColumn("id");
+        int email = rs.findColumn("email");
+        int password = rs.findColumn("password");
+        int firstName = rs.findColumn("first_name");
+        int lastName = rs.findColumn("last_name");
+        int role = rs.findColumn("role");
+        int createdAt = rs.findColumn("created_at");
+        int updatedAt = rs.findColumn("updated_at");
+        return (row, context) -> {
+            User user = new User();
+            user.setId(row.getLong(id));
+            user.setEmail(row.getString(email));
+            user.setPassword(row.getString(password));
+            user.setFirstName(row.getString(firstName));
+            user.setLastName(row.getString(lastName));
+            user.setRole(User.UserRole.valueOf(row.getString(role)));
+            user.setCreatedAt(row.getTimestamp(createdAt).toLocalDateTime());
+            user.setUpdatedAt(row.getTimestamp(updatedAt).toLocalDateTime());
+            return user;
+        };
+    }
+}
@@ -0,0 +1,138 @@
+package com.quizplatform.grading;
+
+import com.quizplatform.models.Answer;
+import com.quizplatform.models.Question;
+import com.quizplatform.models.Quiz;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Immutable grading plan compiled from a quiz with its answers. Grading walks the questions once,
+// comparing submitted IDs against primitive arrays and submitted text against pre-normalized strings.
+public final class AnswerKey {
+    private static final long NO_ANSWER_ID = Long.MIN_VALUE;
+    private static final long[] NO_IDS = new long[0];
+    private static final String[] NO_TEXTS = new String[0];
+
+    private final long quizId;
+    private final Long[] questionIds;
+    private final Question.QuestionType[] types;
+    private final int[] points;
+    private final long[][] correctAnswerIds;
+    private final String[][] acceptedTexts;
+
+    private AnswerKey(long quizId, Long[] questionIds, Question.QuestionType[] types, int[] points,
+                      long[][] correctAnswerIds, String[][] acceptedTexts) {
+        this.quizId = quizId;
+        this.questionIds = questionIds;
+        this.types = types;
+        this.points = points;
+        this.correctAnswerIds = correctAnswerIds;
+        this.acceptedTexts = acceptedTexts;
+    }
+
+    public static AnswerKey compile(Quiz quiz) {
+        List<Question> questions = quiz.getQuestions() != null ? quiz.getQuestions() : List.of();
+        int count = questions.size();
+        Long[] questionIds = new Long[count];
+        Question.QuestionType[] types = new Question.QuestionType[count];
+        int[] points = new int[count];
+        long[][] correctAnswerIds = new long[count][];
+        String[][] acceptedTexts = new String[count][];
+
+        for (int i = 0; i < count; i++) {
+            Question question = questions.get(i);
+            List<Answer> answers = question.getAnswers() != null ? question.getAnswers() : List.of();
+            questionIds[i] = question.getId();
+            types[i] = question.getType();
+            points[i] = question.getPoints() != null ? question.getPoints() : 0;
+            correctAnswerIds[i] = NO_IDS;
+            acceptedTexts[i] = NO_TEXTS;
+
+            if (question.getType() == Question.QuestionType.SHORT_ANSWER) {
+                // Every stored answer text counts as an accepted short answer
+                List<String> texts = new ArrayList<>();
+                for (Answer answer : answers) {
+                    if (answer.getAnswerText() != null) {
+                        texts.add(normalize(answer.getAnswerText()));
+                    }
+                }
+                acceptedTexts[i] = texts.toArray(NO_TEXTS);
+            } else {
+                correctAnswerIds[i] = answers.stream()
+                    .filter(answer -> answer.getId() != null && Boolean.TRUE.equals(answer.getIsCorrect()))
+                    .mapToLong(Answer::getId)
+                    .toArray();
+            }
+        }
+        return new AnswerKey(quiz.getId(), questionIds, types, points, correctAnswerIds, acceptedTexts);
+    }
+
+    // Submitted answers map question IDs to a selected answer ID (number or numeric string) or free text
+    public int grade(Map<Long, Object> submittedAnswers) {
+        int totalScore = 0;
+        for (int i = 0; i < questionIds.length; i++) {
+            Object selected = submittedAnswers.get(questionIds[i]);
+            if (selected == null) {
+                continue;
+            }
+            switch (types[i]) {
+                case MULTIPLE_CHOICE:
+                case TRUE_FALSE:
+                    if (contains(correctAnswerIds[i], answerId(selected))) {
+                        totalScore += points[i];
+                    }
+                    break;
+                case SHORT_ANSWER:
+                    if (contains(acceptedTexts[i], normalize(selected.toString()))) {
+                        totalScore += points[i];
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        return totalScore;
+    }
+
+    public long getQuizId() {
+        return quizId;
+    }
+
+    public int getQuestionCount() {
+        return questionIds.length;
+    }
+
+    private static long answerId(Object selected) {
+        if (selected instanceof Long || selected instanceof Integer) {
+            return ((Number) selected).longValue();
+        }
+        try {
+            return Long.parseLong(selected.toString());
+        } catch (NumberFormatException e) {
+            return NO_ANSWER_ID;
+        }
+    }
+
+    private static boolean contains(long[] ids, long id) {
+        for (long candidate : ids) {
+            if (candidate == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean contains(String[] texts, String text) {
+        for (String candidate : texts) {
+            if (candidate.equals(text)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String normalize(String text) {
+        return text.trim().toLowerCase();
+    }
+}
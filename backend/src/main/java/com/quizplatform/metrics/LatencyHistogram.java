@@ -0,0 +1,68 @@
+package com.quizplatform.metrics;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.LongAdder;
+
+// Fixed-bucket latency histogram. Buckets follow a 1-2.5-5 log scale from 0.5 ms to 10 s, so relative
+// error stays bounded across four orders of magnitude the way HdrHistogram's log buckets do, and
+// they map one-to-one onto Prometheus "le" buckets. Recording is a bucket search plus LongAdder
+// increments: no locks, and concurrent writers on the same bucket do not contend on one cell.
+public final class LatencyHistogram {
+    static final double[] BOUNDS_SECONDS = {
+        0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10
+    };
+    private static final long[] BOUNDS_NANOS = new long[BOUNDS_SECONDS.length];
+    // Rendered once as Prometheus "le" values, e.g. 0.0005 rather than 5.0E-4
+    static final String[] BOUND_LABELS = new String[BOUNDS_SECONDS.length];
+    static {
+        for (int i = 0; i < BOUNDS_SECONDS.length; i++) {
+            BOUNDS_NANOS[i] = (long) (BOUNDS_SECONDS[i] * 1_000_000_000L);
+            BOUND_LABELS[i] = BigDecimal.valueOf(BOUNDS_SECONDS[i]).stripTrailingZeros().toPlainString();
+        }
+    }
+
+    // The last bucket counts everything above the largest bound (+Inf)
+    private final LongAdder[] buckets = new LongAdder[BOUNDS_NANOS.length + 1];
+    private final LongAdder sumNanos = new LongAdder();
+
+    LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos) {
+        int low = 0;
+        int high = BOUNDS_NANOS.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (nanos <= BOUNDS_NANOS[mid]) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        buckets[low].increment();
+        sumNanos.add(nanos);
+    }
+
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    // Cumulative counts per bound, the last entry being +Inf; a scrape may run concurrently with
+    // writers, so the total is taken from the buckets to keep the series consistent
+    long[] cumulativeCounts() {
+        long[] cumulative = new long[buckets.length];
+        long running = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            running += buckets[i].sum();
+            cumulative[i] = running;
+        }
+        return cumulative;
+    }
+
+    double sumSeconds() {
+        return sumNanos.sum() / 1_000_000_000.0;
+    }
+}
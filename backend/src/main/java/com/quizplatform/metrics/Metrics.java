@@ -0,0 +1,180 @@
+package com.quizplatform.metrics;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// In-process metrics registry rendered in the Prometheus text format at /metrics. Series are created
+// on first use and looked up through ConcurrentHashMaps afterwards; recording only touches LongAdders.
+// Gauges and function counters are read when a scrape happens. Labels are given as name/value pairs
+// and must have bounded cardinality (route templates, not raw paths).
+public final class Metrics {
+    private static final Map<String, Family> FAMILIES = new ConcurrentHashMap<>();
+
+    static {
+        registerJvmMetrics();
+    }
+
+    private Metrics() {}
+
+    public static LongAdder counter(String name, String help, String... labels) {
+        return (LongAdder) family(name, help, Type.COUNTER).series.computeIfAbsent(labelText(labels), key -> new LongAdder());
+    }
+
+    public static LatencyHistogram histogram(String name, String help, String... labels) {
+        return (LatencyHistogram) family(name, help, Type.HISTOGRAM).series.computeIfAbsent(labelText(labels), key -> new LatencyHistogram());
+    }
+
+    public static void gauge(String name, String help, Supplier<? extends Number> value, String... labels) {
+        family(name, help, Type.GAUGE).series.put(labelText(labels), value);
+    }
+
+    // A counter maintained elsewhere (e.g. cache hit counts), read at scrape time
+    public static void counterFunction(String name, String help, Supplier<? extends Number> value, String... labels) {
+        family(name, help, Type.COUNTER).series.put(labelText(labels), value);
+    }
+
+    public static String scrape() {
+        StringBuilder out = new StringBuilder(16 * 1024);
+        for (Family family : new TreeMap<>(FAMILIES).values()) {
+            family.write(out);
+        }
+        return out.toString();
+    }
+
+    private static Family family(String name, String help, Type type) {
+        Family family = FAMILIES.computeIfAbsent(name, key -> new Family(name, help, type));
+        if (family.type != type) {
+            throw new IllegalArgumentException("Metric " + name + " is already registered as a " + family.type.text);
+        }
+        return family;
+    }
+
+    private static String labelText(String... labels) {
+        if (labels.length == 0) {
+            return "";
+        }
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels must be name/value pairs");
+        }
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) {
+                text.append(',');
+            }
+            text.append(labels[i]).append("=\"");
+            String value = labels[i + 1] != null ? labels[i + 1] : "";
+            for (int c = 0; c < value.length(); c++) {
+                char ch = value.charAt(c);
+                if (ch == '\\' || ch == '"') {
+                    text.append('\\').append(ch);
+                } else if (ch == '\n') {
+                    text.append("\\n");
+                } else {
+                    text.append(ch);
+                }
+            }
+            text.append('"');
+        }
+        return text.toString();
+    }
+
+    private static void registerJvmMetrics() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        gauge("jvm_memory_used_bytes", "Used JVM memory", () -> memory.getHeapMemoryUsage().getUsed(), "area", "heap");
+        gauge("jvm_memory_used_bytes", "Used JVM memory", () -> memory.getNonHeapMemoryUsage().getUsed(), "area", "nonheap");
+        gauge("jvm_memory_committed_bytes", "Committed JVM memory", () -> memory.getHeapMemoryUsage().getCommitted(), "area", "heap");
+        gauge("jvm_memory_committed_bytes", "Committed JVM memory", () -> memory.getNonHeapMemoryUsage().getCommitted(), "area", "nonheap");
+        gauge("jvm_memory_max_bytes", "Maximum heap size", () -> memory.getHeapMemoryUsage().getMax(), "area", "heap");
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        gauge("jvm_threads_live", "Live JVM threads", threads::getThreadCount);
+        gauge("jvm_threads_peak", "Peak live JVM threads", threads::getPeakThreadCount);
+
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            counterFunction("jvm_gc_collections_total", "Garbage collections", gc::getCollectionCount, "gc", gc.getName());
+            counterFunction("jvm_gc_collection_seconds_total", "Time spent in garbage collection",
+                () -> gc.getCollectionTime() / 1000.0, "gc", gc.getName());
+        }
+
+        gauge("process_uptime_seconds", "JVM uptime", () -> ManagementFactory.getRuntimeMXBean().getUptime() / 1000.0);
+        gauge("jvm_available_processors", "Processors available to the JVM", () -> Runtime.getRuntime().availableProcessors());
+    }
+
+    private enum Type {
+        COUNTER("counter"), GAUGE("gauge"), HISTOGRAM("histogram");
+
+        final String text;
+
+        Type(String text) {
+            this.text = text;
+        }
+    }
+
+    private static final class Family {
+        final String name;
+        final String help;
+        final Type type;
+        // Label text -> LongAdder, LatencyHistogram or Supplier
+        final Map<String, Object> series = new ConcurrentHashMap<>();
+
+        Family(String name, String help, Type type) {
+            this.name = name;
+            this.help = help;
+            this.type = type;
+        }
+
+        @SuppressWarnings("unchecked")
+        void write(StringBuilder out) {
+            out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+            out.append("# TYPE ").append(name).append(' ').append(type.text).append('\n');
+            List<Map.Entry<String, Object>> entries = new ArrayList<>(new TreeMap<>(series).entrySet());
+            for (Map.Entry<String, Object> entry : entries) {
+                String labels = entry.getKey();
+                Object value = entry.getValue();
+                if (value instanceof LatencyHistogram) {
+                    writeHistogram(out, labels, (LatencyHistogram) value);
+                } else if (value instanceof LongAdder) {
+                    sample(out, name, labels, ((LongAdder) value).sum());
+                } else {
+                    Number number;
+                    try {
+                        number = ((Supplier<? extends Number>) value).get();
+                    } catch (RuntimeException e) {
+                        continue;
+                    }
+                    if (number != null) {
+                        sample(out, name, labels, number);
+                    }
+                }
+            }
+        }
+
+        private void writeHistogram(StringBuilder out, String labels, LatencyHistogram histogram) {
+            long[] cumulative = histogram.cumulativeCounts();
+            String prefix = labels.isEmpty() ? "" : labels + ",";
+            for (int i = 0; i < LatencyHistogram.BOUND_LABELS.length; i++) {
+                sample(out, name + "_bucket", prefix + "le=\"" + LatencyHistogram.BOUND_LABELS[i] + "\"", cumulative[i]);
+            }
+            sample(out, name + "_bucket", prefix + "le=\"+Inf\"", cumulative[cumulative.length - 1]);
+            sample(out, name + "_sum", labels, histogram.sumSeconds());
+            sample(out, name + "_count", labels, cumulative[cumulative.length - 1]);
+        }
+
+        private static void sample(StringBuilder out, String name, String labels, Number value) {
+            out.append(name);
+            if (!labels.isEmpty()) {
+                out.append('{').append(labels).append('}');
+            }
+            out.append(' ').append(value).append('\n');
+        }
+    }
+}
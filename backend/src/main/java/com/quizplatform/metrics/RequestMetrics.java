@@ -0,0 +1,100 @@
+package com.quizplatform.metrics;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Series for one route x method x status, resolved once and then reused, so recording a request
+// is a map lookup and a few increments instead of building and escaping label strings each time.
+// Routes are the matched endpoint paths, so the number of keys stays bounded.
+public final class RequestMetrics {
+    private static final ConcurrentHashMap<Key, RequestMetrics> BY_KEY = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, RouteMetrics> BY_ROUTE = new ConcurrentHashMap<>();
+
+    private final LatencyHistogram duration;
+    private final LongAdder requests;
+    // Null unless the status is a 5xx
+    private final LongAdder errors;
+    private final RouteMetrics route;
+
+    private RequestMetrics(String method, String route, int status) {
+        this.duration = Metrics.histogram("http_server_request_duration_seconds", "HTTP request latency",
+            "method", method, "route", route, "status", String.valueOf(status));
+        this.requests = Metrics.counter("http_server_requests_total", "HTTP requests", "method", method, "route", route);
+        this.errors = status >= 500
+            ? Metrics.counter("http_server_errors_total", "HTTP requests answered with a 5xx status", "method", method, "route", route)
+            : null;
+        this.route = BY_ROUTE.computeIfAbsent(route, RouteMetrics::new);
+    }
+
+    public static RequestMetrics of(String method, String route, int status) {
+        Key key = new Key(method, route, status);
+        RequestMetrics metrics = BY_KEY.get(key);
+        return metrics != null ? metrics : BY_KEY.computeIfAbsent(key, k -> new RequestMetrics(method, route, status));
+    }
+
+    public void record(long durationNanos) {
+        duration.record(durationNanos);
+        requests.increment();
+        if (errors != null) {
+            errors.increment();
+        }
+    }
+
+    public RouteMetrics getRoute() {
+        return route;
+    }
+
+    // Database work per route, shared by every method and status of the route
+    public static final class RouteMetrics {
+        private final LongAdder statements;
+        private final LongAdder roundTrips;
+        private final LongAdder connectionCheckouts;
+        private final LatencyHistogram dbTime;
+        private final LongAdder repeatedStatementRequests;
+
+        private RouteMetrics(String route) {
+            statements = Metrics.counter("db_statements_total", "SQL statements executed, per route", "route", route);
+            roundTrips = Metrics.counter("db_round_trips_total", "Database round trips, per route", "route", route);
+            connectionCheckouts = Metrics.counter("db_connection_checkouts_total", "Pooled connection checkouts, per route", "route", route);
+            dbTime = Metrics.histogram("db_time_per_request_seconds", "Time a request spent waiting on the database", "route", route);
+            repeatedStatementRequests = Metrics.counter("db_repeated_statement_requests_total",
+                "Requests that ran one statement at least N_PLUS_ONE_THRESHOLD times", "route", route);
+        }
+
+        public void recordDatabase(long statementCount, long roundTripCount, long checkouts, long dbNanos, boolean repeatedStatements) {
+            statements.add(statementCount);
+            roundTrips.add(roundTripCount);
+            connectionCheckouts.add(checkouts);
+            dbTime.record(dbNanos);
+            if (repeatedStatements) {
+                repeatedStatementRequests.increment();
+            }
+        }
+    }
+
+    private static final class Key {
+        private final String method;
+        private final String route;
+        private final int status;
+
+        Key(String method, String route, int status) {
+            this.method = method;
+            this.route = route;
+            this.status = status;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return status == other.status && method.equals(other.method) && route.equals(other.route);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * method.hashCode() + route.hashCode()) + status;
+        }
+    }
+}
@@ -1,62 +1,54 @@
 package com.quizplatform.middleware;
 
+import com.quizplatform.models.AuthPrincipal;
 import com.quizplatform.models.User;
 import com.quizplatform.utils.SecurityUtils;
 import io.javalin.http.Context;
 import io.javalin.http.Handler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class AuthMiddleware {
+    private static final Logger log = LoggerFactory.getLogger(AuthMiddleware.class);
+
+    public static final String PRINCIPAL_ATTRIBUTE = "principal";
+
     public static Handler requireAuth = ctx -> {
-        System.out.println("=== Auth Middleware Debug ===");
-        System.out.println("Request path: " + ctx.path());
-        System.out.println("Auth header: " + ctx.header("Authorization"));
-        
         String token = extractToken(ctx);
         if (token == null) {
-            System.out.println("No token found in request");
+            log.debug("No token on {} {}", ctx.method(), ctx.path());
             ctx.status(401).json(new ErrorResponse("Authentication required"));
             return;
         }
 
         try {
-            System.out.println("Verifying token...");
-            SecurityUtils.verifyToken(token);
-            Long userId = SecurityUtils.getUserIdFromToken(token);
-            User.UserRole role = SecurityUtils.getRoleFromToken(token);
-            System.out.println("Token verified. User ID: " + userId + ", Role: " + role);
-            
-            ctx.attribute("userId", userId);
-            ctx.attribute("userRole", role);
+            AuthPrincipal principal = SecurityUtils.authenticate(token);
+            log.trace("Authenticated user {} ({}) for {}", principal.getUserId(), principal.getRole(), ctx.path());
+
+            ctx.attribute(PRINCIPAL_ATTRIBUTE, principal);
+            ctx.attribute("userId", principal.getUserId());
+            ctx.attribute("userRole", principal.getRole());
         } catch (Exception e) {
-            System.out.println("Token verification failed: " + e.getMessage());
-            e.printStackTrace();
+            log.debug("Token rejected for {}: {}", ctx.path(), e.getMessage());
             ctx.status(401).json(new ErrorResponse("Invalid or expired token"));
         }
     };
 
     public static Handler requireInstructor = ctx -> {
-        System.out.println("=== Instructor Middleware Debug ===");
-        System.out.println("Request path: " + ctx.path());
-        
-        requireAuth.handle(ctx);
+        authenticateOnce(ctx);
         if (ctx.status().getCode() == 401) {
-            System.out.println("Auth failed, returning 401");
             return;
         }
 
         User.UserRole role = (User.UserRole) ctx.attribute("userRole");
-        System.out.println("User role: " + role);
-        
         if (role != User.UserRole.INSTRUCTOR) {
-            System.out.println("User is not an instructor, returning 403");
+            log.debug("User {} ({}) denied instructor access to {}", ctx.attribute("userId"), role, ctx.path());
             ctx.status(403).json(new ErrorResponse("Instructor access required"));
-        } else {
-            System.out.println("User is an instructor, proceeding");
         }
     };
 
     public static Handler requireStudent = ctx -> {
-        requireAuth.handle(ctx);
+        authenticateOnce(ctx);
         if (ctx.status().getCode() == 401) return;
 
         User.UserRole role = (User.UserRole) ctx.attribute("userRole");
@@ -65,6 +57,18 @@ public class AuthMiddleware {
         }
     };
 
+    // The /api/* before-handler has usually authenticated the request already
+    private static void authenticateOnce(Context ctx) throws Exception {
+        if (principal(ctx) == null && ctx.status().getCode() != 401) {
+            requireAuth.handle(ctx);
+        }
+    }
+
+    // The principal set by requireAuth, or null when the request is not authenticated
+    public static AuthPrincipal principal(Context ctx) {
+        return ctx.attribute(PRINCIPAL_ATTRIBUTE);
+    }
+
     private static String extractToken(Context ctx) {
         String authHeader = ctx.header("Authorization");
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
@@ -0,0 +1,30 @@
+package com.quizplatform.models;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// The authenticated caller, taken from a verified JWT once per request
+@Data
+@AllArgsConstructor
+public final class AuthPrincipal {
+    private final Long userId;
+    private final User.UserRole role;
+    private final String email;
+    private final Instant issuedAt;
+    private final Instant expiresAt;
+
+    public static AuthPrincipal from(DecodedJWT jwt) {
+        return new AuthPrincipal(
+            Long.parseLong(jwt.getSubject()),
+            User.UserRole.valueOf(jwt.getClaim("role").asString()),
+            jwt.getClaim("email").asString(),
+            jwt.getIssuedAtAsInstant(),
+            jwt.getExpiresAtAsInstant());
+    }
+
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !now.isBefore(expiresAt);
+    }
+}
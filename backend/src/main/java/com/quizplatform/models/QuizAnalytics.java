@@ -0,0 +1,13 @@
+package com.quizplatform.models;
+
+import lombok.Data;
+
+// Per-quiz submission aggregates, computed in the database instead of from every submission row.
+@Data
+public class QuizAnalytics {
+    private Long quizId;
+    private Double averageScore;
+    private Integer totalAttempts;
+    private Double completionRate;
+    private Double averageTimeSpentMinutes;
+}
@@ -0,0 +1,19 @@
+package com.quizplatform.models;
+
+import lombok.Data;
+import java.time.LocalDateTime;
+
+// List-view projection of a quiz: no questions, just their count and total points.
+@Data
+public class QuizSummary {
+    private Long id;
+    private String title;
+    private String description;
+    private Long instructorId;
+    private Integer timeLimit; // in minutes
+    private Boolean isPublished;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private Integer questionCount;
+    private Integer totalPoints;
+}
@@ -1,124 +1,71 @@
 package com.quizplatform.repositories;
 
-import com.quizplatform.Main;
 import com.quizplatform.models.Answer;
-import java.sql.*;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
-public class AnswerRepository implements BaseRepository<Answer> {
+public class AnswerRepository extends JdbiRepository implements BaseRepository<Answer> {
+    static final String BY_QUESTION_SQL = "SELECT * FROM answers WHERE question_id = :questionId ORDER BY answer_order";
+
     public AnswerRepository() {}
 
     @Override
     public Answer create(Answer answer) {
-        String sql = "INSERT INTO answers (question_id, answer_text, is_correct, answer_order) VALUES (?, ?, ?, ?)";
-        try (Connection connection = Main.getDataSource().getConnection();
-             PreparedStatement stmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            stmt.setLong(1, answer.getQuestionId());
-            stmt.setString(2, answer.getAnswerText());
-            stmt.setBoolean(3, Boolean.TRUE.equals(answer.getIsCorrect()));
-            stmt.setInt(4, answer.getAnswerOrder());
-            
-            stmt.executeUpdate();
-            
-            try (ResultSet rs = stmt.getGeneratedKeys()) {
-                if (rs.next()) {
-                    answer.setId(rs.getLong(1));
-                }
-            }
+        return withHandle("Error creating answer", handle -> {
+            Long id = handle.createUpdate("INSERT INTO answers (question_id, answer_text, is_correct, answer_order) VALUES (:questionId, :answerText, :isCorrect, :answerOrder)")
+                .bind("questionId", answer.getQuestionId())
+                .bind("answerText", answer.getAnswerText())
+                .bind("isCorrect", Boolean.TRUE.equals(answer.getIsCorrect()))
+                .bind("answerOrder", answer.getAnswerOrder())
+                .executeAndReturnGeneratedKeys("id")
+                .mapTo(Long.class)
+                .one();
+            answer.setId(id);
             return answer;
-        } catch (SQLException e) {
-            throw new RuntimeException("Error creating answer", e);
-        }
+        });
     }
 
     @Override
     public Optional<Answer> findById(Long id) {
-        String sql = "SELECT * FROM answers WHERE id = ?";
-        try (Connection connection = Main.getDataSource().getConnection();
-             PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setLong(1, id);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return Optional.of(mapResultSetToAnswer(rs));
-                }
-            }
-            return Optional.empty();
-        } catch (SQLException e) {
-            throw new RuntimeException("Error finding answer", e);
-        }
+        return withHandle("Error finding answer", handle ->
+            handle.createQuery("SELECT * FROM answers WHERE id = :id")
+                .bind("id", id)
+                .mapTo(Answer.class)
+                .findOne());
     }
 
     public List<Answer> findByQuestionId(Long questionId) {
-        String sql = "SELECT * FROM answers WHERE question_id = ? ORDER BY answer_order";
-        List<Answer> answers = new ArrayList<>();
-        try (Connection connection = Main.getDataSource().getConnection();
-             PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setLong(1, questionId);
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    answers.add(mapResultSetToAnswer(rs));
-                }
-            }
-            return answers;
-        } catch (SQLException e) {
-            throw new RuntimeException("Error finding answers by question", e);
-        }
+        return withHandle("Error finding answers by question", handle ->
+            handle.createQuery(BY_QUESTION_SQL)
+                .bind("questionId", questionId)
+                .mapTo(Answer.class)
+                .list());
     }
 
     @Override
     public List<Answer> findAll() {
-        String sql = "SELECT * FROM answers ORDER BY answer_order";
-        List<Answer> answers = new ArrayList<>();
-        try (Connection connection = Main.getDataSource().getConnection();
-             Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            while (rs.next()) {
-                answers.add(mapResultSetToAnswer(rs));
-            }
-            return answers;
-        } catch (SQLException e) {
-            throw new RuntimeException("Error finding all answers", e);
-        }
+        return withHandle("Error finding all answers", handle ->
+            handle.createQuery("SELECT * FROM answers ORDER BY answer_order")
+                .mapTo(Answer.class)
+                .list());
     }
 
     @Override
     public Answer update(Answer answer) {
-        String sql = "UPDATE answers SET answer_text = ?, is_correct = ?, answer_order = ? WHERE id = ?";
-        try (Connection connection = Main.getDataSource().getConnection();
-             PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setString(1, answer.getAnswerText());
-            stmt.setBoolean(2, answer.getIsCorrect());
-            stmt.setInt(3, answer.getAnswerOrder());
-            stmt.setLong(4, answer.getId());
-            
-            stmt.executeUpdate();
+        return withHandle("Error updating answer", handle -> {
+            handle.createUpdate("UPDATE answers SET answer_text = :answerText, is_correct = :isCorrect, answer_order = :answerOrder WHERE id = :id")
+                .bind("answerText", answer.getAnswerText())
+                .bind("isCorrect", answer.getIsCorrect())
+                .bind("answerOrder", answer.getAnswerOrder())
+                .bind("id", answer.getId())
+                .execute();
             return answer;
-        } catch (SQLException e) {
-            throw new RuntimeException("Error updating answer", e);
-        }
+        });
     }
 
     @Override
     public void delete(Long id) {
-        String sql = "DELETE FROM answers WHERE id = ?";
-        try (Connection connection = Main.getDataSource().getConnection();
-             PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setLong(1, id);
-            stmt.executeUpdate();
-        } catch (SQLException e) {
-            throw new RuntimeException("Error deleting answer", e);
-        }
-    }
-
-    private Answer mapResultSetToAnswer(ResultSet rs) throws SQLException {
-        Answer answer = new Answer();
-        answer.setId(rs.getLong("id"));
-        answer.setQuestionId(rs.getLong("question_id"));
-        answer.setAnswerText(rs.getString("answer_text"));
-        answer.setIsCorrect(rs.getBoolean("is_correct"));
-        answer.setAnswerOrder(rs.getInt("answer_order"));
-        return answer;
+        withHandle("Error deleting answer", handle ->
+            handle.createUpdate("DELETE FROM answers WHERE id = :id").bind("id", id).execute());
     }
-} 
\ No newline at end of file
+}
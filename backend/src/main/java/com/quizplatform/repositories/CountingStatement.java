@@ -0,0 +1,406 @@
+package com.quizplatform.repositories;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.Statement;
+import java.util.Map;
+
+// Statement from a CountingConnection. Every execution is timed where it runs and reported to the
+// current QueryStats scope, and to SlowQueryLog when it crosses the threshold. With the default
+// fetch size pgjdbc reads every row during the execute call, so that time includes the fetch.
+// Result sets are the driver's own, except for slow queries: theirs are wrapped in a
+// CountingResultSet so the slow query log gets the number of rows the caller read.
+class CountingStatement implements Statement {
+    private final CountingConnection connection;
+    // SQL of a prepared statement; plain statements pass theirs to each execute call
+    final String sql;
+    private final Statement delegate;
+    private int batched;
+    // Slow query whose result set has not been handed out yet
+    private SlowExecution pending;
+
+    CountingStatement(CountingConnection connection, String sql, Statement delegate) {
+        this.connection = connection;
+        this.sql = sql;
+        this.delegate = delegate;
+    }
+
+    // Bind values by parameter index for the slow query log, or null when there are none
+    Map<Integer, Object> binds() {
+        return null;
+    }
+
+    void countBatchedRow() {
+        batched++;
+    }
+
+    <T> T timed(String sql, boolean batch, SqlCall<T> call) throws SQLException {
+        recordPending();
+        long start = System.nanoTime();
+        T result = null;
+        try {
+            result = call.call();
+            return result;
+        } finally {
+            long nanos = System.nanoTime() - start;
+            QueryStats.recordExecution(sql, batch ? Math.max(batched, 1) : 1, nanos);
+            if (batch) {
+                batched = 0;
+            }
+            if (SlowQueryLog.isSlow(nanos)) {
+                if (result instanceof ResultSet || Boolean.TRUE.equals(result)) {
+                    // Recorded once the caller has read the rows, or with -1 if it never asks for them
+                    pending = new SlowExecution(sql, binds(), nanos);
+                } else {
+                    SlowQueryLog.record(sql, binds(), rows(result), nanos);
+                }
+            }
+        }
+    }
+
+    // The result set of an execution, wrapped to count its rows when the execution was slow
+    ResultSet results(ResultSet rs) {
+        if (pending == null || rs == null) {
+            return rs;
+        }
+        SlowExecution slow = pending;
+        pending = null;
+        return new CountingResultSet(this, rs, slow);
+    }
+
+    private void recordPending() {
+        if (pending != null) {
+            pending.record(-1);
+            pending = null;
+        }
+    }
+
+    // Affected rows of an update or batch
+    private long rows(Object result) throws SQLException {
+        if (result instanceof Number) {
+            return ((Number) result).longValue();
+        }
+        long total = 0;
+        if (result instanceof int[]) {
+            for (int count : (int[]) result) {
+                total += Math.max(count, 0);
+            }
+            return total;
+        }
+        if (result instanceof long[]) {
+            for (long count : (long[]) result) {
+                total += Math.max(count, 0);
+            }
+            return total;
+        }
+        if (Boolean.FALSE.equals(result)) {
+            return delegate.getUpdateCount();
+        }
+        return -1;
+    }
+
+    static final class SlowExecution {
+        private final String sql;
+        private final Map<Integer, Object> binds;
+        private final long nanos;
+
+        SlowExecution(String sql, Map<Integer, Object> binds, long nanos) {
+            this.sql = sql;
+            this.binds = binds;
+            this.nanos = nanos;
+        }
+
+        void record(long rows) {
+            SlowQueryLog.record(sql, binds, rows, nanos);
+        }
+    }
+
+    interface SqlCall<T> {
+        T call() throws SQLException;
+    }
+
+    @Override
+    public void addBatch(String sql) throws SQLException {
+        delegate.addBatch(sql);
+        countBatchedRow();
+    }
+
+    @Override
+    public void cancel() throws SQLException {
+        delegate.cancel();
+    }
+
+    @Override
+    public void clearBatch() throws SQLException {
+        delegate.clearBatch();
+        batched = 0;
+    }
+
+    @Override
+    public void clearWarnings() throws SQLException {
+        delegate.clearWarnings();
+    }
+
+    @Override
+    public void close() throws SQLException {
+        recordPending();
+        delegate.close();
+    }
+
+    @Override
+    public void closeOnCompletion() throws SQLException {
+        delegate.closeOnCompletion();
+    }
+
+    @Override
+    public String enquoteIdentifier(String identifier, boolean alwaysQuote) throws SQLException {
+        return delegate.enquoteIdentifier(identifier, alwaysQuote);
+    }
+
+    @Override
+    public String enquoteLiteral(String val) throws SQLException {
+        return delegate.enquoteLiteral(val);
+    }
+
+    @Override
+    public String enquoteNCharLiteral(String val) throws SQLException {
+        return delegate.enquoteNCharLiteral(val);
+    }
+
+    @Override
+    public boolean execute(String sql) throws SQLException {
+        return timed(sql, false, () -> delegate.execute(sql));
+    }
+
+    @Override
+    public boolean execute(String sql, int[] columnIndexes) throws SQLException {
+        return timed(sql, false, () -> delegate.execute(sql, columnIndexes));
+    }
+
+    @Override
+    public boolean execute(String sql, String[] columnNames) throws SQLException {
+        return timed(sql, false, () -> delegate.execute(sql, columnNames));
+    }
+
+    @Override
+    public boolean execute(String sql, int autoGeneratedKeys) throws SQLException {
+        return timed(sql, false, () -> delegate.execute(sql, autoGeneratedKeys));
+    }
+
+    @Override
+    public int[] executeBatch() throws SQLException {
+        return timed(this.sql, true, () -> delegate.executeBatch());
+    }
+
+    @Override
+    public long[] executeLargeBatch() throws SQLException {
+        return timed(this.sql, true, () -> delegate.executeLargeBatch());
+    }
+
+    @Override
+    public long executeLargeUpdate(String sql) throws SQLException {
+        return timed(sql, false, () -> delegate.executeLargeUpdate(sql));
+    }
+
+    @Override
+    public long executeLargeUpdate(String sql, int[] columnIndexes) throws SQLException {
+        return timed(sql, false, () -> delegate.executeLargeUpdate(sql, columnIndexes));
+    }
+
+    @Override
+    public long executeLargeUpdate(String sql, String[] columnNames) throws SQLException {
+        return timed(sql, false, () -> delegate.executeLargeUpdate(sql, columnNames));
+    }
+
+    @Override
+    public long executeLargeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+        return timed(sql, false, () -> delegate.executeLargeUpdate(sql, autoGeneratedKeys));
+    }
+
+    @Override
+    public ResultSet executeQuery(String sql) throws SQLException {
+        return results(timed(sql, false, () -> delegate.executeQuery(sql)));
+    }
+
+    @Override
+    public int executeUpdate(String sql) throws SQLException {
+        return timed(sql, false, () -> delegate.executeUpdate(sql));
+    }
+
+    @Override
+    public int executeUpdate(String sql, int[] columnIndexes) throws SQLException {
+        return timed(sql, false, () -> delegate.executeUpdate(sql, columnIndexes));
+    }
+
+    @Override
+    public int executeUpdate(String sql, String[] columnNames) throws SQLException {
+        return timed(sql, false, () -> delegate.executeUpdate(sql, columnNames));
+    }
+
+    @Override
+    public int executeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+        return timed(sql, false, () -> delegate.executeUpdate(sql, autoGeneratedKeys));
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connection;
+    }
+
+    @Override
+    public int getFetchDirection() throws SQLException {
+        return delegate.getFetchDirection();
+    }
+
+    @Override
+    public int getFetchSize() throws SQLException {
+        return delegate.getFetchSize();
+    }
+
+    @Override
+    public ResultSet getGeneratedKeys() throws SQLException {
+        return delegate.getGeneratedKeys();
+    }
+
+    @Override
+    public long getLargeMaxRows() throws SQLException {
+        return delegate.getLargeMaxRows();
+    }
+
+    @Override
+    public long getLargeUpdateCount() throws SQLException {
+        return delegate.getLargeUpdateCount();
+    }
+
+    @Override
+    public int getMaxFieldSize() throws SQLException {
+        return delegate.getMaxFieldSize();
+    }
+
+    @Override
+    public int getMaxRows() throws SQLException {
+        return delegate.getMaxRows();
+    }
+
+    @Override
+    public boolean getMoreResults() throws SQLException {
+        return delegate.getMoreResults();
+    }
+
+    @Override
+    public boolean getMoreResults(int current) throws SQLException {
+        return delegate.getMoreResults(current);
+    }
+
+    @Override
+    public int getQueryTimeout() throws SQLException {
+        return delegate.getQueryTimeout();
+    }
+
+    @Override
+    public ResultSet getResultSet() throws SQLException {
+        return results(delegate.getResultSet());
+    }
+
+    @Override
+    public int getResultSetConcurrency() throws SQLException {
+        return delegate.getResultSetConcurrency();
+    }
+
+    @Override
+    public int getResultSetHoldability() throws SQLException {
+        return delegate.getResultSetHoldability();
+    }
+
+    @Override
+    public int getResultSetType() throws SQLException {
+        return delegate.getResultSetType();
+    }
+
+    @Override
+    public int getUpdateCount() throws SQLException {
+        return delegate.getUpdateCount();
+    }
+
+    @Override
+    public SQLWarning getWarnings() throws SQLException {
+        return delegate.getWarnings();
+    }
+
+    @Override
+    public boolean isCloseOnCompletion() throws SQLException {
+        return delegate.isCloseOnCompletion();
+    }
+
+    @Override
+    public boolean isClosed() throws SQLException {
+        return delegate.isClosed();
+    }
+
+    @Override
+    public boolean isPoolable() throws SQLException {
+        return delegate.isPoolable();
+    }
+
+    @Override
+    public boolean isSimpleIdentifier(String identifier) throws SQLException {
+        return delegate.isSimpleIdentifier(identifier);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(delegate) || delegate.isWrapperFor(iface);
+    }
+
+    @Override
+    public void setCursorName(String name) throws SQLException {
+        delegate.setCursorName(name);
+    }
+
+    @Override
+    public void setEscapeProcessing(boolean enable) throws SQLException {
+        delegate.setEscapeProcessing(enable);
+    }
+
+    @Override
+    public void setFetchDirection(int direction) throws SQLException {
+        delegate.setFetchDirection(direction);
+    }
+
+    @Override
+    public void setFetchSize(int rows) throws SQLException {
+        delegate.setFetchSize(rows);
+    }
+
+    @Override
+    public void setLargeMaxRows(long max) throws SQLException {
+        delegate.setLargeMaxRows(max);
+    }
+
+    @Override
+    public void setMaxFieldSize(int max) throws SQLException {
+        delegate.setMaxFieldSize(max);
+    }
+
+    @Override
+    public void setMaxRows(int max) throws SQLException {
+        delegate.setMaxRows(max);
+    }
+
+    @Override
+    public void setPoolable(boolean poolable) throws SQLException {
+        delegate.setPoolable(poolable);
+    }
+
+    @Override
+    public void setQueryTimeout(int seconds) throws SQLException {
+        delegate.setQueryTimeout(seconds);
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return iface.isInstance(delegate) ? iface.cast(delegate) : delegate.unwrap(iface);
+    }
+}
@@ -0,0 +1,66 @@
+package com.quizplatform.repositories;
+
+import com.quizplatform.dao.AnswerMapper;
+import com.quizplatform.metrics.LatencyHistogram;
+import com.quizplatform.metrics.Metrics;
+import com.quizplatform.dao.QuizMapper;
+import com.quizplatform.dao.QuizQuestionMapper;
+import com.quizplatform.dao.QuizSubmissionMapper;
+import com.quizplatform.dao.QuizSummaryMapper;
+import com.quizplatform.dao.UserMapper;
+import com.quizplatform.models.Answer;
+import com.quizplatform.models.Question;
+import com.quizplatform.models.Quiz;
+import com.quizplatform.models.QuizSubmission;
+import com.quizplatform.models.QuizSummary;
+import com.quizplatform.models.User;
+import org.jdbi.v3.core.HandleCallback;
+import org.jdbi.v3.core.Handles;
+import org.jdbi.v3.core.Jdbi;
+import org.jdbi.v3.core.JdbiException;
+import org.jdbi.v3.postgres.PostgresPlugin;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Base for the JDBI-backed repositories. Handles are opened on UnitOfWork connections, so a request's
+// statements still share one connection and transaction; commit and rollback stay with the unit.
+// The SQL strings are constants per query shape, which lets JDBI reuse its parsed statements and
+// pgjdbc reuse its server-side prepared statements on each pooled connection.
+abstract class JdbiRepository {
+    protected static final Jdbi jdbi = createJdbi();
+    // Timers per repository operation, keyed by the constant error message each call site passes
+    private static final Map<String, LatencyHistogram> operationTimers = new ConcurrentHashMap<>();
+
+    private static Jdbi createJdbi() {
+        Jdbi jdbi = Jdbi.create(UnitOfWork::getConnection);
+        jdbi.installPlugin(new PostgresPlugin());
+        // Closing a handle inside a unit must not roll back work the unit has not committed yet
+        jdbi.getConfig(Handles.class).setForceEndTransactions(false);
+        jdbi.registerRowMapper(Quiz.class, new QuizMapper());
+        jdbi.registerRowMapper(QuizSummary.class, new QuizSummaryMapper());
+        jdbi.registerRowMapper(Question.class, new QuizQuestionMapper());
+        jdbi.registerRowMapper(Answer.class, new AnswerMapper());
+        jdbi.registerRowMapper(QuizSubmission.class, new QuizSubmissionMapper());
+        jdbi.registerRowMapper(User.class, new UserMapper());
+        return jdbi;
+    }
+
+    protected static <T> T withHandle(String errorMessage, HandleCallback<T, RuntimeException> callback) {
+        long start = System.nanoTime();
+        try {
+            return jdbi.withHandle(callback);
+        } catch (JdbiException e) {
+            Metrics.counter("db_operation_errors_total", "Failed repository operations", "operation", operationName(errorMessage)).increment();
+            throw new RuntimeException(errorMessage + ": " + e.getMessage(), e);
+        } finally {
+            operationTimers.computeIfAbsent(errorMessage, message ->
+                Metrics.histogram("db_operation_duration_seconds", "Repository operation latency", "operation", operationName(message)))
+                .recordSince(start);
+        }
+    }
+
+    // "Error finding quiz" -> "finding quiz"
+    private static String operationName(String errorMessage) {
+        return errorMessage.startsWith("Error ") ? errorMessage.substring("Error ".length()) : errorMessage;
+    }
+}
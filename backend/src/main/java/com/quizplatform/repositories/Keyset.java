@@ -0,0 +1,49 @@
+package com.quizplatform.repositories;
+
+import org.jdbi.v3.core.statement.SqlStatement;
+
+// Keyset (seek) pagination over a unique, indexed column, bound through the named
+// :keysetAfter and :keysetLimit parameters.
+final class Keyset {
+    private final String column;
+    private final boolean descending;
+    private final Long after;
+    private final int limit;
+
+    private Keyset(String column, boolean descending, Long after, int limit) {
+        this.column = column;
+        this.descending = descending;
+        this.after = after;
+        this.limit = limit;
+    }
+
+    // A limit of 0 or less means no LIMIT clause
+    static Keyset ascending(String column, Long after, int limit) {
+        return new Keyset(column, false, after, limit);
+    }
+
+    static Keyset descending(String column, Long before, int limit) {
+        return new Keyset(column, true, before, limit);
+    }
+
+    String condition() {
+        if (after == null) {
+            return "TRUE";
+        }
+        return column + (descending ? " < :keysetAfter" : " > :keysetAfter");
+    }
+
+    String orderBy() {
+        return " ORDER BY " + column + (descending ? " DESC" : "") + (limit > 0 ? " LIMIT :keysetLimit" : "");
+    }
+
+    <S extends SqlStatement<S>> S bind(S statement) {
+        if (after != null) {
+            statement.bind("keysetAfter", after);
+        }
+        if (limit > 0) {
+            statement.bind("keysetLimit", limit);
+        }
+        return statement;
+    }
+}
@@ -0,0 +1,71 @@
+package com.quizplatform.repositories;
+
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.logging.Logger;
+import javax.sql.DataSource;
+
+// DataSource wrapper that reports every checkout, statement execution, commit and rollback to the
+// current QueryStats scope, and statements over the slow query threshold to SlowQueryLog.
+// Connections and statements are wrapped in plain delegating classes (CountingConnection and
+// friends), so JDBI and plain JDBC code see the usual interfaces; unwrap() still reaches the pooled
+// objects underneath. Result sets are not wrapped.
+public final class QueryCountingDataSource implements DataSource {
+    private final DataSource target;
+
+    public QueryCountingDataSource(DataSource target) {
+        this.target = target;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return counting(target.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return counting(target.getConnection(username, password));
+    }
+
+    private static Connection counting(Connection connection) {
+        QueryStats.recordCheckout();
+        return new CountingConnection(connection);
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return target.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        target.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        target.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return target.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return target.getParentLogger();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return iface.isInstance(target) ? iface.cast(target) : target.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(target) || target.isWrapperFor(iface);
+    }
+}
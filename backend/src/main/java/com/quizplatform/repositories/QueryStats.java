@@ -0,0 +1,136 @@
+package com.quizplatform.repositories;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Per-request database counters, filled in by QueryCountingDataSource on the request's thread:
+// statements executed (each row of a batch counts), round trips (executes, batches, commits and
+// rollbacks), pooled connection checkouts and time spent waiting on the database. Statements whose
+// SQL repeats REPEAT_THRESHOLD times within one scope are reported as likely N+1 queries.
+public final class QueryStats {
+    static final int REPEAT_THRESHOLD = Integer.parseInt(System.getenv().getOrDefault("N_PLUS_ONE_THRESHOLD", "10"));
+
+    private static final ThreadLocal<QueryStats> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private int roundTrips;
+    private int connectionCheckouts;
+    private long dbNanos;
+    private final Map<String, Integer> executionsBySql = new HashMap<>();
+    private final List<String> repeatedStatements = new ArrayList<>();
+
+    private QueryStats() {}
+
+    // Starts counting for the current thread, discarding any scope a previous request left behind
+    public static QueryStats begin() {
+        QueryStats stats = new QueryStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    // Stops counting and returns what was recorded, or null when no scope was active
+    public static QueryStats end() {
+        QueryStats stats = CURRENT.get();
+        CURRENT.remove();
+        return stats;
+    }
+
+    // Runs the work in its own scope and returns its counts; they are added to any enclosing scope too
+    public static QueryStats measure(Runnable work) {
+        QueryStats outer = CURRENT.get();
+        QueryStats stats = begin();
+        try {
+            work.run();
+        } finally {
+            if (outer != null) {
+                CURRENT.set(outer);
+                outer.add(stats);
+            } else {
+                CURRENT.remove();
+            }
+        }
+        return stats;
+    }
+
+    // Query budget check for tests and diagnostics: fails when the work runs more than maxStatements
+    public static QueryStats assertMaxQueries(int maxStatements, Runnable work) {
+        QueryStats stats = measure(work);
+        if (stats.statements > maxStatements) {
+            throw new AssertionError("Expected at most " + maxStatements + " statements but " + stats.statements
+                + " ran: " + stats.executionsBySql);
+        }
+        return stats;
+    }
+
+    static void recordCheckout() {
+        QueryStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.connectionCheckouts++;
+        }
+    }
+
+    static void recordRoundTrip(long nanos) {
+        QueryStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.roundTrips++;
+            stats.dbNanos += nanos;
+        }
+    }
+
+    static void recordExecution(String sql, int statementCount, long nanos) {
+        QueryStats stats = CURRENT.get();
+        if (stats == null) {
+            return;
+        }
+        stats.statements += statementCount;
+        stats.roundTrips++;
+        stats.dbNanos += nanos;
+        if (sql != null) {
+            int executions = stats.executionsBySql.merge(sql, 1, Integer::sum);
+            if (executions == REPEAT_THRESHOLD) {
+                stats.repeatedStatements.add(sql);
+            }
+        }
+    }
+
+    private void add(QueryStats inner) {
+        statements += inner.statements;
+        roundTrips += inner.roundTrips;
+        connectionCheckouts += inner.connectionCheckouts;
+        dbNanos += inner.dbNanos;
+        for (Map.Entry<String, Integer> entry : inner.executionsBySql.entrySet()) {
+            int before = executionsBySql.getOrDefault(entry.getKey(), 0);
+            int after = before + entry.getValue();
+            executionsBySql.put(entry.getKey(), after);
+            if (before < REPEAT_THRESHOLD && after >= REPEAT_THRESHOLD) {
+                repeatedStatements.add(entry.getKey());
+            }
+        }
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public int getRoundTrips() {
+        return roundTrips;
+    }
+
+    public int getConnectionCheckouts() {
+        return connectionCheckouts;
+    }
+
+    public long getDbNanos() {
+        return dbNanos;
+    }
+
+    public int getExecutions(String sql) {
+        return executionsBySql.getOrDefault(sql, 0);
+    }
+
+    public List<String> getRepeatedStatements() {
+        return repeatedStatements;
+    }
+}
@@ -1,14 +1,36 @@
 package com.quizplatform.repositories;
 
-import com.quizplatform.Main;
+import com.quizplatform.dao.AnswerMapper;
 import com.quizplatform.models.Answer;
 import com.quizplatform.models.Question;
-import java.sql.*;
+import org.jdbi.v3.core.Handle;
+import org.jdbi.v3.core.result.RowView;
+import org.jdbi.v3.core.statement.PreparedBatch;
+import org.jdbi.v3.core.statement.Query;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
-public class QuestionRepository implements BaseRepository<Question> {
+public class QuestionRepository extends JdbiRepository implements BaseRepository<Question> {
+    private static final String INSERT_QUESTION_SQL =
+        "INSERT INTO questions (quiz_id, question_text, question_type, points, question_order) " +
+        "VALUES (:quizId, :questionText, :questionType, :points, :order)";
+    private static final String INSERT_ANSWER_SQL =
+        "INSERT INTO answers (question_id, answer_text, is_correct, answer_order) " +
+        "VALUES (:questionId, :answerText, :isCorrect, :answerOrder)";
+    // Questions joined with their answers; answer ID columns are aliased for the joined AnswerMapper
+    static final String QUESTIONS_WITH_ANSWERS_SQL =
+        "SELECT q.id, q.quiz_id, q.question_text, q.question_type, q.points, q.question_order, " +
+        "a.id AS answer_id, a.question_id AS answer_question_id, a.answer_text, a.is_correct, a.answer_order " +
+        "FROM questions q " +
+        "LEFT JOIN answers a ON q.id = a.question_id ";
+    static final String QUESTIONS_BY_QUIZ_IDS_SQL = QUESTIONS_WITH_ANSWERS_SQL +
+        "WHERE q.quiz_id = ANY(:quizIds) " +
+        "ORDER BY q.quiz_id, q.question_order, q.id, a.answer_order";
+    private static final AnswerMapper JOINED_ANSWER_MAPPER = new AnswerMapper("answer_id", "answer_question_id");
+
     private final AnswerRepository answerRepository;
 
     public QuestionRepository() {
@@ -17,175 +39,139 @@ public class QuestionRepository implements BaseRepository<Question> {
 
     @Override
     public Question create(Question question) {
-        String sql = "INSERT INTO questions (quiz_id, question_text, question_type, points, question_order) VALUES (?, ?, ?, ?, ?)";
-        try (Connection connection = Main.getDataSource().getConnection();
-             PreparedStatement stmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            stmt.setLong(1, question.getQuizId());
-            stmt.setString(2, question.getQuestionText());
-            stmt.setString(3, question.getType().name());
-            stmt.setInt(4, question.getPoints());
-            stmt.setInt(5, question.getOrder());
-            
-            stmt.executeUpdate();
-            
-            try (ResultSet rs = stmt.getGeneratedKeys()) {
-                if (rs.next()) {
-                    question.setId(rs.getLong(1));
-                }
-            }
+        createAll(List.of(question));
+        return question;
+    }
 
-            // Save answers if provided
-            if (question.getAnswers() != null && !question.getAnswers().isEmpty()) {
-                String answerSql = "INSERT INTO answers (question_id, answer_text, is_correct, answer_order) VALUES (?, ?, ?, ?)";
-                try (PreparedStatement answerStmt = connection.prepareStatement(answerSql, Statement.RETURN_GENERATED_KEYS)) {
-                    for (int i = 0; i < question.getAnswers().size(); i++) {
-                        Answer answer = question.getAnswers().get(i);
-                        answer.setQuestionId(question.getId());
-                        answerStmt.setLong(1, question.getId());
-                        answerStmt.setString(2, answer.getAnswerText());
-                        answerStmt.setBoolean(3, answer.getIsCorrect());
-                        answerStmt.setInt(4, answer.getAnswerOrder() != null ? answer.getAnswerOrder() : i + 1);
-                        answerStmt.executeUpdate();
-
-                        try (ResultSet answerRs = answerStmt.getGeneratedKeys()) {
-                            if (answerRs.next()) {
-                                answer.setId(answerRs.getLong(1));
-                            }
-                        }
-                    }
-                }
-            }
+    public List<Question> createAll(List<Question> questions) {
+        if (questions.isEmpty()) {
+            return questions;
+        }
+        return UnitOfWork.execute(() -> withHandle("Error creating questions", handle -> createAll(handle, questions)));
+    }
 
-            return question;
-        } catch (SQLException e) {
-            throw new RuntimeException("Error creating question", e);
+    // Inserts the questions and then all of their answers as two JDBC batches, filling in the generated IDs.
+    // With reWriteBatchedInserts on the JDBC URL each batch goes to PostgreSQL as multi-row INSERTs.
+    List<Question> createAll(Handle handle, List<Question> questions) {
+        PreparedBatch questionBatch = handle.prepareBatch(INSERT_QUESTION_SQL);
+        for (Question question : questions) {
+            questionBatch
+                .bind("quizId", question.getQuizId())
+                .bind("questionText", question.getQuestionText())
+                .bind("questionType", question.getType().name())
+                .bind("points", question.getPoints())
+                .bind("order", question.getOrder())
+                .add();
         }
+        List<Long> questionIds = questionBatch.executePreparedBatch("id").mapTo(Long.class).list();
+        for (int i = 0; i < questions.size() && i < questionIds.size(); i++) {
+            questions.get(i).setId(questionIds.get(i));
+        }
+
+        // Save answers if provided
+        List<Answer> answers = new ArrayList<>();
+        PreparedBatch answerBatch = handle.prepareBatch(INSERT_ANSWER_SQL);
+        for (Question question : questions) {
+            if (question.getAnswers() == null) {
+                continue;
+            }
+            for (int i = 0; i < question.getAnswers().size(); i++) {
+                Answer answer = question.getAnswers().get(i);
+                answer.setQuestionId(question.getId());
+                answerBatch
+                    .bind("questionId", question.getId())
+                    .bind("answerText", answer.getAnswerText())
+                    .bind("isCorrect", answer.getIsCorrect())
+                    .bind("answerOrder", answer.getAnswerOrder() != null ? answer.getAnswerOrder() : i + 1)
+                    .add();
+                answers.add(answer);
+            }
+        }
+        if (!answers.isEmpty()) {
+            List<Long> answerIds = answerBatch.executePreparedBatch("id").mapTo(Long.class).list();
+            for (int i = 0; i < answers.size() && i < answerIds.size(); i++) {
+                answers.get(i).setId(answerIds.get(i));
+            }
+        }
+        return questions;
     }
 
     @Override
     public Optional<Question> findById(Long id) {
-        String sql = "SELECT * FROM questions WHERE id = ?";
-        try (Connection connection = Main.getDataSource().getConnection();
-             PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setLong(1, id);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    Question question = mapResultSetToQuestion(rs);
-                    question.setAnswers(answerRepository.findByQuestionId(question.getId()));
-                    return Optional.of(question);
-                }
-            }
-            return Optional.empty();
-        } catch (SQLException e) {
-            throw new RuntimeException("Error finding question", e);
-        }
+        Optional<Question> question = withHandle("Error finding question", handle ->
+            handle.createQuery("SELECT * FROM questions WHERE id = :id")
+                .bind("id", id)
+                .mapTo(Question.class)
+                .findOne());
+        question.ifPresent(q -> q.setAnswers(answerRepository.findByQuestionId(q.getId())));
+        return question;
     }
 
     public List<Question> findByQuizId(Long quizId, boolean includeCorrectAnswers) {
-        String sql = "SELECT q.*, a.id as answer_id, a.answer_text, a.is_correct, a.answer_order " +
-                    "FROM questions q " +
-                    "LEFT JOIN answers a ON q.id = a.question_id " +
-                    "WHERE q.quiz_id = ? " +
-                    "ORDER BY q.question_order, a.answer_order";
+        return withHandle("Error finding questions by quiz ID", handle ->
+            findByQuizIds(handle, List.of(quizId), includeCorrectAnswers).getOrDefault(quizId, new ArrayList<>()));
+    }
+
+    // Loads the questions and answers of every given quiz with a single query on the
+    // caller's handle, so list endpoints don't need one query (and one pool slot) per quiz.
+    Map<Long, List<Question>> findByQuizIds(Handle handle, List<Long> quizIds, boolean includeCorrectAnswers) {
+        Map<Long, List<Question>> questionsByQuiz = new HashMap<>();
+        if (quizIds.isEmpty()) {
+            return questionsByQuiz;
+        }
+
+        // Always include isCorrect for validation and scoring purposes
+        List<Question> questions = reduceQuestions(handle.createQuery(QUESTIONS_BY_QUIZ_IDS_SQL).bindArray("quizIds", Long.class, quizIds));
+        for (Question question : questions) {
+            questionsByQuiz.computeIfAbsent(question.getQuizId(), id -> new ArrayList<>()).add(question);
+        }
+        return questionsByQuiz;
+    }
+
+    Optional<Question> findWithAnswers(Handle handle, Long questionId) {
+        String sql = QUESTIONS_WITH_ANSWERS_SQL + "WHERE q.id = :id ORDER BY a.answer_order";
+        return reduceQuestions(handle.createQuery(sql).bind("id", questionId)).stream().findFirst();
+    }
+
+    // Folds the one-row-per-answer join into questions, keeping the query's question order
+    private List<Question> reduceQuestions(Query query) {
         List<Question> questions = new ArrayList<>();
-        try (Connection conn = Main.getDataSource().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setLong(1, quizId);
-            try (ResultSet rs = stmt.executeQuery()) {
-                Question currentQuestion = null;
-                while (rs.next()) {
-                    Long questionId = rs.getLong("id");
-                    if (currentQuestion == null || !currentQuestion.getId().equals(questionId)) {
-                        if (currentQuestion != null) {
-                            questions.add(currentQuestion);
-                        }
-                        currentQuestion = new Question();
-                        currentQuestion.setId(questionId);
-                        currentQuestion.setQuizId(quizId);
-                        currentQuestion.setQuestionText(rs.getString("question_text"));
-                        currentQuestion.setType(Question.QuestionType.valueOf(rs.getString("question_type")));
-                        currentQuestion.setPoints(rs.getInt("points"));
-                        currentQuestion.setOrder(rs.getInt("question_order"));
-                        currentQuestion.setAnswers(new ArrayList<>());
-                    }
-                    
-                    if (rs.getLong("answer_id") != 0) {
-                        Answer answer = new Answer();
-                        answer.setId(rs.getLong("answer_id"));
-                        answer.setQuestionId(questionId);
-                        answer.setAnswerText(rs.getString("answer_text"));
-                        // Always include isCorrect for validation and scoring purposes
-                            answer.setIsCorrect(rs.getBoolean("is_correct"));
-                        answer.setAnswerOrder(rs.getInt("answer_order"));
-                        currentQuestion.getAnswers().add(answer);
-                    }
+        query.registerRowMapper(Answer.class, JOINED_ANSWER_MAPPER)
+            .reduceRows((Map<Long, Question> byId, RowView row) -> {
+                Question question = byId.computeIfAbsent(row.getColumn("id", Long.class),
+                    id -> row.getRow(Question.class));
+                Answer answer = row.getRow(Answer.class);
+                if (answer != null) {
+                    question.getAnswers().add(answer);
                 }
-                if (currentQuestion != null) {
-                    questions.add(currentQuestion);
-                }
-            }
-            return questions;
-        } catch (SQLException e) {
-            throw new RuntimeException("Error finding questions by quiz ID", e);
-        }
+            })
+            .forEach(questions::add);
+        return questions;
     }
 
     @Override
     public List<Question> findAll() {
-        String sql = "SELECT * FROM questions ORDER BY question_order";
-        List<Question> questions = new ArrayList<>();
-        try (Connection connection = Main.getDataSource().getConnection();
-             Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            while (rs.next()) {
-                Question question = mapResultSetToQuestion(rs);
-                question.setAnswers(answerRepository.findByQuestionId(question.getId()));
-                questions.add(question);
-            }
-            return questions;
-        } catch (SQLException e) {
-            throw new RuntimeException("Error finding all questions", e);
-        }
+        return withHandle("Error finding all questions", handle -> reduceQuestions(
+            handle.createQuery(QUESTIONS_WITH_ANSWERS_SQL + "ORDER BY q.question_order, q.id, a.answer_order")));
     }
 
     @Override
     public Question update(Question question) {
-        String sql = "UPDATE questions SET question_text = ?, type = ?, points = ?, question_order = ? WHERE id = ?";
-        try (Connection connection = Main.getDataSource().getConnection();
-             PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setString(1, question.getQuestionText());
-            stmt.setString(2, question.getType().name());
-            stmt.setInt(3, question.getPoints());
-            stmt.setInt(4, question.getOrder());
-            stmt.setLong(5, question.getId());
-            
-            stmt.executeUpdate();
+        return withHandle("Error updating question", handle -> {
+            handle.createUpdate("UPDATE questions SET question_text = :questionText, type = :type, points = :points, question_order = :order WHERE id = :id")
+                .bind("questionText", question.getQuestionText())
+                .bind("type", question.getType().name())
+                .bind("points", question.getPoints())
+                .bind("order", question.getOrder())
+                .bind("id", question.getId())
+                .execute();
             return question;
-        } catch (SQLException e) {
-            throw new RuntimeException("Error updating question", e);
-        }
+        });
     }
 
     @Override
     public void delete(Long id) {
-        String sql = "DELETE FROM questions WHERE id = ?";
-        try (Connection connection = Main.getDataSource().getConnection();
-             PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setLong(1, id);
-            stmt.executeUpdate();
-        } catch (SQLException e) {
-            throw new RuntimeException("Error deleting question", e);
-        }
-    }
-
-    private Question mapResultSetToQuestion(ResultSet rs) throws SQLException {
-        Question question = new Question();
-        question.setId(rs.getLong("id"));
-        question.setQuizId(rs.getLong("quiz_id"));
-        question.setQuestionText(rs.getString("question_text"));
-        question.setType(Question.QuestionType.valueOf(rs.getString("question_type")));
-        question.setPoints(rs.getInt("points"));
-        question.setOrder(rs.getInt("question_order"));
-        return question;
+        withHandle("Error deleting question", handle ->
+            handle.createUpdate("DELETE FROM questions WHERE id = :id").bind("id", id).execute());
     }
-} 
\ No newline at end of file
+}
@@ -1,6 +1,5 @@
 package com.quizplatform.repositories;
 
-import com.quizplatform.Main;
 import com.quizplatform.models.QuizAttempt;
 import java.sql.*;
 import java.util.ArrayList;
@@ -13,7 +12,7 @@ public class QuizAttemptRepository implements BaseRepository<QuizAttempt> {
     @Override
     public QuizAttempt create(QuizAttempt attempt) {
         String sql = "INSERT INTO quiz_attempts (quiz_id, student_id, start_time, status) VALUES (?, ?, ?, ?)";
-        try (Connection connection = Main.getDataSource().getConnection();
+        try (Connection connection = UnitOfWork.getConnection();
              PreparedStatement stmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             stmt.setLong(1, attempt.getQuizId());
             stmt.setLong(2, attempt.getStudentId());
@@ -36,7 +35,7 @@ public class QuizAttemptRepository implements BaseRepository<QuizAttempt> {
     @Override
     public Optional<QuizAttempt> findById(Long id) {
         String sql = "SELECT * FROM quiz_attempts WHERE id = ?";
-        try (Connection connection = Main.getDataSource().getConnection();
+        try (Connection connection = UnitOfWork.getConnection();
              PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setLong(1, id);
             try (ResultSet rs = stmt.executeQuery()) {
@@ -53,7 +52,7 @@ public class QuizAttemptRepository implements BaseRepository<QuizAttempt> {
     public List<QuizAttempt> findByStudentId(Long studentId) {
         String sql = "SELECT * FROM quiz_attempts WHERE student_id = ? ORDER BY start_time DESC";
         List<QuizAttempt> attempts = new ArrayList<>();
-        try (Connection connection = Main.getDataSource().getConnection();
+        try (Connection connection = UnitOfWork.getConnection();
              PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setLong(1, studentId);
             try (ResultSet rs = stmt.executeQuery()) {
@@ -70,7 +69,7 @@ public class QuizAttemptRepository implements BaseRepository<QuizAttempt> {
     public List<QuizAttempt> findByQuizId(Long quizId) {
         String sql = "SELECT * FROM quiz_attempts WHERE quiz_id = ? ORDER BY start_time DESC";
         List<QuizAttempt> attempts = new ArrayList<>();
-        try (Connection connection = Main.getDataSource().getConnection();
+        try (Connection connection = UnitOfWork.getConnection();
              PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setLong(1, quizId);
             try (ResultSet rs = stmt.executeQuery()) {
@@ -88,7 +87,7 @@ public class QuizAttemptRepository implements BaseRepository<QuizAttempt> {
     public List<QuizAttempt> findAll() {
         String sql = "SELECT * FROM quiz_attempts ORDER BY start_time DESC";
         List<QuizAttempt> attempts = new ArrayList<>();
-        try (Connection connection = Main.getDataSource().getConnection();
+        try (Connection connection = UnitOfWork.getConnection();
              Statement stmt = connection.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             while (rs.next()) {
@@ -103,7 +102,7 @@ public class QuizAttemptRepository implements BaseRepository<QuizAttempt> {
     @Override
     public QuizAttempt update(QuizAttempt attempt) {
         String sql = "UPDATE quiz_attempts SET end_time = ?, score = ?, max_score = ?, status = ? WHERE id = ?";
-        try (Connection connection = Main.getDataSource().getConnection();
+        try (Connection connection = UnitOfWork.getConnection();
              PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setTimestamp(1, attempt.getEndTime() != null ? Timestamp.valueOf(attempt.getEndTime()) : null);
             stmt.setInt(2, attempt.getScore());
@@ -121,7 +120,7 @@ public class QuizAttemptRepository implements BaseRepository<QuizAttempt> {
     @Override
     public void delete(Long id) {
         String sql = "DELETE FROM quiz_attempts WHERE id = ?";
-        try (Connection connection = Main.getDataSource().getConnection();
+        try (Connection connection = UnitOfWork.getConnection();
              PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setLong(1, id);
             stmt.executeUpdate();
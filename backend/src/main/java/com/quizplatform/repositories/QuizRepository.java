@@ -1,15 +1,29 @@
 package com.quizplatform.repositories;
 
-import com.quizplatform.Main;
 import com.quizplatform.models.Quiz;
+import com.quizplatform.models.QuizSummary;
 import com.quizplatform.models.Question;
-import com.quizplatform.models.Answer;
-import java.sql.*;
+import org.jdbi.v3.core.Handle;
+import org.jdbi.v3.core.statement.Query;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
-public class QuizRepository implements BaseRepository<Quiz> {
+public class QuizRepository extends JdbiRepository implements BaseRepository<Quiz> {
+    private static final Logger log = LoggerFactory.getLogger(QuizRepository.class);
+    // Hot-path SQL is kept in constants and builders so QueryPlanTest can EXPLAIN the exact statements
+    static final String SELECT_BY_ID_SQL = "SELECT * FROM quizzes WHERE id = :id";
+    static final String PUBLISHED_SUMMARY_CONDITION = "qz.is_published = true";
+    static final String INSTRUCTOR_SUMMARY_CONDITION = "qz.instructor_id = :param";
+    static final String HAS_SUBMISSIONS_SQL = "SELECT COUNT(*) FROM quiz_submissions WHERE quiz_id = :quizId";
+    static final String DELETE_SUBMISSION_ANSWERS_SQL =
+        "DELETE FROM submission_answers WHERE submission_id IN (SELECT id FROM quiz_submissions WHERE quiz_id = :id)";
+    static final String DELETE_ANSWERS_SQL =
+        "DELETE FROM answers WHERE question_id IN (SELECT id FROM questions WHERE quiz_id = :id)";
+
     private final QuestionRepository questionRepository;
 
     public QuizRepository() {
@@ -18,136 +32,81 @@ public class QuizRepository implements BaseRepository<Quiz> {
 
     @Override
     public Quiz create(Quiz quiz) {
-        System.out.println("QuizRepository.create() - Starting quiz creation");
-        System.out.println("Quiz data: " + quiz);
-        System.out.println("Questions count: " + (quiz.getQuestions() != null ? quiz.getQuestions().size() : 0));
-
-        String sql = "INSERT INTO quizzes (title, description, instructor_id, time_limit, is_published, created_at, updated_at) VALUES (?, ?, ?, ?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)";
-        try (Connection conn = Main.getDataSource().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            stmt.setString(1, quiz.getTitle());
-            stmt.setString(2, quiz.getDescription());
-            stmt.setLong(3, quiz.getInstructorId());
-            stmt.setInt(4, quiz.getTimeLimit());
-            stmt.setBoolean(5, quiz.getIsPublished());
-            stmt.executeUpdate();
-
-            try (ResultSet rs = stmt.getGeneratedKeys()) {
-                if (rs.next()) {
-                    quiz.setId(rs.getLong(1));
-                    System.out.println("Created quiz with ID: " + quiz.getId());
-                }
-            }
-
-            if (quiz.getQuestions() != null) {
-                System.out.println("Saving " + quiz.getQuestions().size() + " questions");
-                for (int i = 0; i < quiz.getQuestions().size(); i++) {
-                    Question question = quiz.getQuestions().get(i);
-                    System.out.println("Saving question " + (i + 1) + ": " + question.getQuestionText());
-                    question.setQuizId(quiz.getId());
-                    question.setOrder(i + 1);
-                    Question savedQuestion = questionRepository.create(question);
-                    System.out.println("Saved question with ID: " + savedQuestion.getId());
-                    quiz.getQuestions().set(i, savedQuestion);
+        return UnitOfWork.execute(() -> {
+            return withHandle("Error creating quiz", handle -> {
+                Long id = handle.createUpdate("INSERT INTO quizzes (title, description, instructor_id, time_limit, is_published, created_at, updated_at) " +
+                        "VALUES (:title, :description, :instructorId, :timeLimit, :isPublished, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)")
+                    .bind("title", quiz.getTitle())
+                    .bind("description", quiz.getDescription())
+                    .bind("instructorId", quiz.getInstructorId())
+                    .bind("timeLimit", quiz.getTimeLimit())
+                    .bind("isPublished", quiz.getIsPublished())
+                    .executeAndReturnGeneratedKeys("id")
+                    .mapTo(Long.class)
+                    .one();
+                quiz.setId(id);
+
+                if (quiz.getQuestions() != null) {
+                    log.debug("Saving {} questions for quiz {}", quiz.getQuestions().size(), id);
+                    for (int i = 0; i < quiz.getQuestions().size(); i++) {
+                        Question question = quiz.getQuestions().get(i);
+                        question.setQuizId(quiz.getId());
+                        question.setOrder(i + 1);
+                    }
+                    if (!quiz.getQuestions().isEmpty()) {
+                        questionRepository.createAll(handle, quiz.getQuestions());
+                    }
                 }
-            }
 
-            String selectSql = "SELECT * FROM quizzes WHERE id = ?";
-            try (PreparedStatement selectStmt = conn.prepareStatement(selectSql)) {
-                selectStmt.setLong(1, quiz.getId());
-                try (ResultSet rs = selectStmt.executeQuery()) {
-                    if (rs.next()) {
-                        Quiz createdQuiz = mapResultSetToQuiz(rs);
-                        System.out.println("Fetching questions for quiz ID: " + quiz.getId());
-                        List<Question> questions = questionRepository.findByQuizId(quiz.getId(), true);
-                        System.out.println("Found " + questions.size() + " questions");
-                        createdQuiz.setQuestions(questions);
-                        return createdQuiz;
-                    }
+                Optional<Quiz> createdQuiz = findQuiz(handle, quiz.getId());
+                if (createdQuiz.isPresent()) {
+                    attachQuestions(handle, List.of(createdQuiz.get()), true);
+                    return createdQuiz.get();
                 }
-            }
-            return quiz;
-        } catch (SQLException e) {
-            e.printStackTrace();
-            throw new RuntimeException("Error creating quiz: " + e.getMessage(), e);
-        }
+                return quiz;
+            });
+        });
     }
 
     @Override
     public Optional<Quiz> findById(Long id) {
-        String sql = "SELECT * FROM quizzes WHERE id = ?";
-        try (Connection connection = Main.getDataSource().getConnection();
-             PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setLong(1, id);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    Quiz quiz = mapResultSetToQuiz(rs);
-                    quiz.setQuestions(questionRepository.findByQuizId(quiz.getId(), false));
-                    return Optional.of(quiz);
-                }
-            }
-            return Optional.empty();
-        } catch (SQLException e) {
-            throw new RuntimeException("Error finding quiz", e);
-        }
+        return findById(id, false);
     }
 
     public Optional<Quiz> findByIdWithAnswers(Long id) {
-        String sql = "SELECT * FROM quizzes WHERE id = ?";
-        try (Connection connection = Main.getDataSource().getConnection();
-             PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setLong(1, id);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    Quiz quiz = mapResultSetToQuiz(rs);
-                    quiz.setQuestions(questionRepository.findByQuizId(quiz.getId(), true));
-                    return Optional.of(quiz);
-                }
-            }
-            return Optional.empty();
-        } catch (SQLException e) {
-            throw new RuntimeException("Error finding quiz", e);
-        }
+        return findById(id, true);
+    }
+
+    private Optional<Quiz> findById(Long id, boolean includeCorrectAnswers) {
+        return withHandle("Error finding quiz", handle -> {
+            Optional<Quiz> quiz = findQuiz(handle, id);
+            quiz.ifPresent(q -> attachQuestions(handle, List.of(q), includeCorrectAnswers));
+            return quiz;
+        });
     }
 
     public List<Quiz> findByInstructorId(Long instructorId) {
-        String sql = "SELECT * FROM quizzes WHERE instructor_id = ?";
-        List<Quiz> quizzes = new ArrayList<>();
-        try (Connection connection = Main.getDataSource().getConnection();
-             PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setLong(1, instructorId);
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    Quiz quiz = mapResultSetToQuiz(rs);
-                    try {
-                        quiz.setQuestions(questionRepository.findByQuizId(quiz.getId(), true));
-                    } catch (Exception e) {
-                        quiz.setQuestions(new ArrayList<>());
-                    }
-                    quizzes.add(quiz);
-                }
-            }
-            return quizzes;
-        } catch (SQLException e) {
-            throw new RuntimeException("Error finding quizzes by instructor", e);
-        }
+        return findByInstructorId(instructorId, null, 0);
+    }
+
+    // Keyset page ordered by quiz ID; a limit of 0 returns every quiz after the given ID
+    public List<Quiz> findByInstructorId(Long instructorId, Long afterId, int limit) {
+        Keyset page = Keyset.ascending("id", afterId, limit);
+        String sql = byInstructorSql(page);
+        // A failed question load aborts the request's transaction, so it has to fail the call too
+        return withHandle("Error finding quizzes by instructor", handle ->
+            attachQuestions(handle, page.bind(handle.createQuery(sql).bind("instructorId", instructorId)).mapTo(Quiz.class).list(), true));
     }
 
     public List<Quiz> findPublishedQuizzes() {
-        String sql = "SELECT * FROM quizzes WHERE is_published = true";
-        List<Quiz> quizzes = new ArrayList<>();
-        try (Connection connection = Main.getDataSource().getConnection();
-             Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            while (rs.next()) {
-                Quiz quiz = mapResultSetToQuiz(rs);
-                quiz.setQuestions(questionRepository.findByQuizId(quiz.getId(), false));
-                quizzes.add(quiz);
-            }
-            return quizzes;
-        } catch (SQLException e) {
-            throw new RuntimeException("Error finding published quizzes", e);
-        }
+        return findPublishedQuizzes(null, 0);
+    }
+
+    public List<Quiz> findPublishedQuizzes(Long afterId, int limit) {
+        Keyset page = Keyset.ascending("id", afterId, limit);
+        String sql = publishedSql(page);
+        return withHandle("Error finding published quizzes", handle ->
+            attachQuestions(handle, page.bind(handle.createQuery(sql)).mapTo(Quiz.class).list(), false));
     }
 
     public List<Quiz> findAvailableForStudent(Long studentId) {
@@ -156,186 +115,121 @@ public class QuizRepository implements BaseRepository<Quiz> {
 
     @Override
     public List<Quiz> findAll() {
-        String sql = "SELECT * FROM quizzes";
-        List<Quiz> quizzes = new ArrayList<>();
-        try (Connection connection = Main.getDataSource().getConnection();
-             Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            while (rs.next()) {
-                Quiz quiz = mapResultSetToQuiz(rs);
-                quiz.setQuestions(questionRepository.findByQuizId(quiz.getId(), false));
-                quizzes.add(quiz);
+        return withHandle("Error finding all quizzes", handle ->
+            attachQuestions(handle, handle.createQuery("SELECT * FROM quizzes").mapTo(Quiz.class).list(), false));
+    }
+
+    public List<QuizSummary> findPublishedSummaries() {
+        return findPublishedSummaries(null, 0);
+    }
+
+    public List<QuizSummary> findPublishedSummaries(Long afterId, int limit) {
+        return findSummaries(PUBLISHED_SUMMARY_CONDITION, null, Keyset.ascending("qz.id", afterId, limit));
+    }
+
+    public List<QuizSummary> findSummariesByInstructorId(Long instructorId) {
+        return findSummariesByInstructorId(instructorId, null, 0);
+    }
+
+    public List<QuizSummary> findSummariesByInstructorId(Long instructorId, Long afterId, int limit) {
+        return findSummaries(INSTRUCTOR_SUMMARY_CONDITION, instructorId, Keyset.ascending("qz.id", afterId, limit));
+    }
+
+    static String byInstructorSql(Keyset page) {
+        return "SELECT * FROM quizzes WHERE instructor_id = :instructorId AND " + page.condition() + page.orderBy();
+    }
+
+    static String publishedSql(Keyset page) {
+        return "SELECT * FROM quizzes WHERE is_published = true AND " + page.condition() + page.orderBy();
+    }
+
+    static String summariesSql(String condition, Keyset page) {
+        return "SELECT qz.id, qz.title, qz.description, qz.instructor_id, qz.time_limit, qz.is_published, " +
+            "qz.created_at, qz.updated_at, COUNT(q.id) AS question_count, COALESCE(SUM(q.points), 0) AS total_points " +
+            "FROM quizzes qz " +
+            "LEFT JOIN questions q ON q.quiz_id = qz.id " +
+            "WHERE " + condition + " AND " + page.condition() + " " +
+            "GROUP BY qz.id" +
+            page.orderBy();
+    }
+
+    private List<QuizSummary> findSummaries(String condition, Long param, Keyset page) {
+        String sql = summariesSql(condition, page);
+        return withHandle("Error finding quiz summaries", handle -> {
+            Query query = handle.createQuery(sql);
+            if (param != null) {
+                query.bind("param", param);
             }
-            return quizzes;
-        } catch (SQLException e) {
-            throw new RuntimeException("Error finding all quizzes", e);
-        }
+            return page.bind(query).mapTo(QuizSummary.class).list();
+        });
     }
 
     @Override
     public Quiz update(Quiz quiz) {
-        String sql = "UPDATE quizzes SET title = ?, description = ?, time_limit = ?, is_published = ?, updated_at = CURRENT_TIMESTAMP WHERE id = ?";
-        try (Connection connection = Main.getDataSource().getConnection();
-             PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setString(1, quiz.getTitle());
-            stmt.setString(2, quiz.getDescription());
-            stmt.setInt(3, quiz.getTimeLimit());
-            stmt.setBoolean(4, quiz.getIsPublished());
-            stmt.setLong(5, quiz.getId());
-            
-            stmt.executeUpdate();
+        return withHandle("Error updating quiz", handle -> {
+            handle.createUpdate("UPDATE quizzes SET title = :title, description = :description, time_limit = :timeLimit, is_published = :isPublished, updated_at = CURRENT_TIMESTAMP WHERE id = :id")
+                .bind("title", quiz.getTitle())
+                .bind("description", quiz.getDescription())
+                .bind("timeLimit", quiz.getTimeLimit())
+                .bind("isPublished", quiz.getIsPublished())
+                .bind("id", quiz.getId())
+                .execute();
             return quiz;
-        } catch (SQLException e) {
-            throw new RuntimeException("Error updating quiz", e);
-        }
+        });
     }
 
     @Override
     public void delete(Long id) {
-        try (Connection connection = Main.getDataSource().getConnection()) {
-            String deleteSubmissionAnswers = "DELETE FROM submission_answers WHERE submission_id IN (SELECT id FROM quiz_submissions WHERE quiz_id = ?)";
-            try (PreparedStatement stmt = connection.prepareStatement(deleteSubmissionAnswers)) {
-                stmt.setLong(1, id);
-                stmt.executeUpdate();
-            }
-            
-            String deleteSubmissions = "DELETE FROM quiz_submissions WHERE quiz_id = ?";
-            try (PreparedStatement stmt = connection.prepareStatement(deleteSubmissions)) {
-                stmt.setLong(1, id);
-                stmt.executeUpdate();
-            }
-            
-            String deleteAnswers = "DELETE FROM answers WHERE question_id IN (SELECT id FROM questions WHERE quiz_id = ?)";
-            try (PreparedStatement stmt = connection.prepareStatement(deleteAnswers)) {
-                stmt.setLong(1, id);
-                stmt.executeUpdate();
-            }
-            
-            String deleteQuestions = "DELETE FROM questions WHERE quiz_id = ?";
-            try (PreparedStatement stmt = connection.prepareStatement(deleteQuestions)) {
-                stmt.setLong(1, id);
-                stmt.executeUpdate();
-            }
-            
-            String deleteQuiz = "DELETE FROM quizzes WHERE id = ?";
-            try (PreparedStatement stmt = connection.prepareStatement(deleteQuiz)) {
-                stmt.setLong(1, id);
-                stmt.executeUpdate();
-            }
-        } catch (SQLException e) {
-            throw new RuntimeException("Error deleting quiz", e);
-        }
+        UnitOfWork.execute(() -> withHandle("Error deleting quiz", handle -> {
+            handle.createUpdate(DELETE_SUBMISSION_ANSWERS_SQL)
+                .bind("id", id).execute();
+            handle.createUpdate("DELETE FROM quiz_submissions WHERE quiz_id = :id")
+                .bind("id", id).execute();
+            handle.createUpdate(DELETE_ANSWERS_SQL)
+                .bind("id", id).execute();
+            handle.createUpdate("DELETE FROM questions WHERE quiz_id = :id")
+                .bind("id", id).execute();
+            handle.createUpdate("DELETE FROM quizzes WHERE id = :id")
+                .bind("id", id).execute();
+            return null;
+        }));
     }
 
-    private Quiz mapResultSetToQuiz(ResultSet rs) throws SQLException {
-        try {
-            Quiz quiz = new Quiz();
-            quiz.setId(rs.getLong("id"));
-            quiz.setTitle(rs.getString("title"));
-            quiz.setDescription(rs.getString("description"));
-            quiz.setInstructorId(rs.getLong("instructor_id"));
-            quiz.setTimeLimit(rs.getInt("time_limit"));
-            quiz.setIsPublished(rs.getBoolean("is_published"));
-            quiz.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
-            quiz.setUpdatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
-            quiz.setQuestions(new ArrayList<>()); 
-            return quiz;
-        } catch (Exception e) {
-            e.printStackTrace();
-            throw new SQLException("Error mapping quiz from result set: " + e.getMessage(), e);
+    private Optional<Quiz> findQuiz(Handle handle, Long id) {
+        return handle.createQuery(SELECT_BY_ID_SQL).bind("id", id).mapTo(Quiz.class).findOne();
+    }
+
+    private List<Quiz> attachQuestions(Handle handle, List<Quiz> quizzes, boolean includeCorrectAnswers) {
+        List<Long> quizIds = new ArrayList<>(quizzes.size());
+        for (Quiz quiz : quizzes) {
+            quizIds.add(quiz.getId());
+        }
+        Map<Long, List<Question>> questionsByQuiz = questionRepository.findByQuizIds(handle, quizIds, includeCorrectAnswers);
+        for (Quiz quiz : quizzes) {
+            quiz.setQuestions(questionsByQuiz.getOrDefault(quiz.getId(), new ArrayList<>()));
         }
+        return quizzes;
     }
 
     public Question addQuestion(Question question) {
-        String sql = "INSERT INTO questions (quiz_id, question_text, question_type, points, question_order) VALUES (?, ?, ?, ?, ?)";
-        try (Connection conn = Main.getDataSource().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            stmt.setLong(1, question.getQuizId());
-            stmt.setString(2, question.getQuestionText());
-            stmt.setString(3, question.getType().name());
-            stmt.setInt(4, question.getPoints());
-            stmt.setInt(5, question.getOrder() != null ? question.getOrder() : 1); 
-            stmt.executeUpdate();
-
-            try (ResultSet rs = stmt.getGeneratedKeys()) {
-                if (rs.next()) {
-                    question.setId(rs.getLong(1));
-                }
-            }
-
-            if (question.getAnswers() != null && !question.getAnswers().isEmpty()) {
-                String answerSql = "INSERT INTO answers (question_id, answer_text, is_correct, answer_order) VALUES (?, ?, ?, ?)";
-                try (PreparedStatement answerStmt = conn.prepareStatement(answerSql, Statement.RETURN_GENERATED_KEYS)) {
-                    for (int i = 0; i < question.getAnswers().size(); i++) {
-                        Answer answer = question.getAnswers().get(i);
-                        answer.setQuestionId(question.getId());
-                        answerStmt.setLong(1, question.getId());
-                        answerStmt.setString(2, answer.getAnswerText());
-                        answerStmt.setBoolean(3, answer.getIsCorrect());
-                        answerStmt.setInt(4, answer.getAnswerOrder() != null ? answer.getAnswerOrder() : i + 1); 
-                        answerStmt.executeUpdate();
-
-                        try (ResultSet answerRs = answerStmt.getGeneratedKeys()) {
-                            if (answerRs.next()) {
-                                answer.setId(answerRs.getLong(1));
-                            }
-                        }
-                    }
-                }
-            }
-
-            String selectSql = "SELECT q.*, a.id as answer_id, a.answer_text, a.is_correct, a.answer_order " +
-                             "FROM questions q " +
-                             "LEFT JOIN answers a ON q.id = a.question_id " +
-                             "WHERE q.id = ?";
-            try (PreparedStatement selectStmt = conn.prepareStatement(selectSql)) {
-                selectStmt.setLong(1, question.getId());
-                try (ResultSet rs = selectStmt.executeQuery()) {
-                    if (rs.next()) {
-                        question.setId(rs.getLong("id"));
-                        question.setQuizId(rs.getLong("quiz_id"));
-                        question.setQuestionText(rs.getString("question_text"));
-                        question.setType(Question.QuestionType.valueOf(rs.getString("question_type")));
-                        question.setPoints(rs.getInt("points"));
-                        question.setOrder(rs.getInt("question_order"));
-                        
-                        List<Answer> answers = new ArrayList<>();
-                        do {
-                            if (rs.getLong("answer_id") != 0) {
-                                Answer answer = new Answer();
-                                answer.setId(rs.getLong("answer_id"));
-                                answer.setQuestionId(question.getId());
-                                answer.setAnswerText(rs.getString("answer_text"));
-                                answer.setIsCorrect(rs.getBoolean("is_correct"));
-                                answer.setAnswerOrder(rs.getInt("answer_order"));
-                                answers.add(answer);
-                            }
-                        } while (rs.next());
-                        question.setAnswers(answers);
-                    }
-                }
-            }
-
-            return question;
-        } catch (SQLException e) {
-            e.printStackTrace();
-            throw new RuntimeException("Error adding question: " + e.getMessage(), e);
-        }
+        return UnitOfWork.execute(() -> withHandle("Error adding question", handle -> {
+            if (question.getOrder() == null) {
+                question.setOrder(1);
+            }
+            questionRepository.createAll(handle, List.of(question));
+            // updated_at versions the quiz for cached payloads and their ETags
+            handle.createUpdate("UPDATE quizzes SET updated_at = CURRENT_TIMESTAMP WHERE id = :id")
+                .bind("id", question.getQuizId())
+                .execute();
+            return questionRepository.findWithAnswers(handle, question.getId()).orElse(question);
+        }));
     }
 
     public boolean hasSubmissions(Long quizId) {
-        String sql = "SELECT COUNT(*) FROM quiz_submissions WHERE quiz_id = ?";
-        try (Connection connection = Main.getDataSource().getConnection();
-             PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setLong(1, quizId);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getInt(1) > 0;
-                }
-            }
-            return false;
-        } catch (SQLException e) {
-            throw new RuntimeException("Error checking quiz submissions", e);
-        }
+        return withHandle("Error checking quiz submissions", handle ->
+            handle.createQuery(HAS_SUBMISSIONS_SQL)
+                .bind("quizId", quizId)
+                .mapTo(Integer.class)
+                .one() > 0);
     }
-}
\ No newline at end of file
+}
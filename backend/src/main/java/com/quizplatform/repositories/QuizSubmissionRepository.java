@@ -1,234 +1,260 @@
 package com.quizplatform.repositories;
 
-import com.quizplatform.Main;
+import com.quizplatform.models.QuizAnalytics;
 import com.quizplatform.models.QuizSubmission;
-import java.sql.*;
+import org.jdbi.v3.core.Handle;
+import org.jdbi.v3.core.statement.PreparedBatch;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
-public class QuizSubmissionRepository implements BaseRepository<QuizSubmission> {
+public class QuizSubmissionRepository extends JdbiRepository implements BaseRepository<QuizSubmission> {
+    private static final int ANSWER_PAGE_SIZE = 500;
+    private static final String INSERT_ANSWER_SQL =
+        "INSERT INTO submission_answers (submission_id, question_id, selected_answer_id, answer_text) " +
+        "VALUES (:submissionId, :questionId, :selectedAnswerId, :answerText)";
+    // The DO UPDATE ... WHERE skips answers whose value did not change, so their rows are not rewritten
+    private static final String UPSERT_ANSWER_SQL = INSERT_ANSWER_SQL + " " +
+        "ON CONFLICT (submission_id, question_id) DO UPDATE SET " +
+        "selected_answer_id = EXCLUDED.selected_answer_id, answer_text = EXCLUDED.answer_text, updated_at = CURRENT_TIMESTAMP " +
+        "WHERE submission_answers.selected_answer_id IS DISTINCT FROM EXCLUDED.selected_answer_id " +
+        "OR submission_answers.answer_text IS DISTINCT FROM EXCLUDED.answer_text";
+    static final String ACTIVE_SUBMISSION_SQL =
+        "SELECT * FROM quiz_submissions WHERE student_id = :studentId AND quiz_id = :quizId AND completed_at IS NULL";
+    // Inserts nothing when the student already has an open attempt; the conflict target is the
+    // partial unique index uq_quiz_submissions_active
+    private static final String START_SUBMISSION_SQL =
+        "INSERT INTO quiz_submissions (quiz_id, student_id, score, started_at) VALUES (:quizId, :studentId, 0, :startedAt) " +
+        "ON CONFLICT (student_id, quiz_id) WHERE completed_at IS NULL DO NOTHING RETURNING *";
+    static final String LATEST_SUBMISSION_SQL = "SELECT * FROM quiz_submissions WHERE student_id = :studentId AND quiz_id = :quizId " +
+        "ORDER BY submitted_at DESC NULLS FIRST, id DESC LIMIT 1";
+    static final String BY_STUDENT_SQL = "SELECT * FROM quiz_submissions WHERE student_id = :studentId ORDER BY submitted_at DESC";
+    static final String BY_QUIZ_SQL = "SELECT * FROM quiz_submissions WHERE quiz_id = :quizId ORDER BY submitted_at DESC";
+    // Time spent counts whole minutes per submission, as the analytics endpoint always has
+    static final String ANALYTICS_SQL = "SELECT COUNT(*) AS total_attempts, COUNT(completed_at) AS completed_attempts, " +
+        "COALESCE(AVG(score), 0) AS average_score, " +
+        "COALESCE(AVG(TRUNC(EXTRACT(EPOCH FROM completed_at - started_at) / 60)) FILTER (WHERE completed_at IS NOT NULL), 0) AS average_minutes " +
+        "FROM quiz_submissions WHERE quiz_id = :quizId";
+    static final String DELETE_STALE_ANSWERS_SQL =
+        "DELETE FROM submission_answers WHERE submission_id = :submissionId AND question_id <> ALL(:answered)";
+    static final String SELECT_ANSWERS_SQL =
+        "SELECT submission_id, question_id, selected_answer_id, answer_text FROM submission_answers WHERE submission_id = ANY(:ids)";
+
     @Override
     public QuizSubmission create(QuizSubmission submission) {
-        String sql = "INSERT INTO quiz_submissions (quiz_id, student_id, score, started_at, completed_at, submitted_at) " +
-                    "VALUES (?, ?, ?, ?, ?, ?)";
-        try (Connection conn = Main.getDataSource().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            stmt.setLong(1, submission.getQuizId());
-            stmt.setLong(2, submission.getStudentId());
-            stmt.setInt(3, submission.getScore());
-            stmt.setTimestamp(4, Timestamp.valueOf(submission.getStartedAt()));
-            stmt.setTimestamp(5, submission.getCompletedAt() != null ? Timestamp.valueOf(submission.getCompletedAt()) : null);
-            stmt.setTimestamp(6, submission.getSubmittedAt() != null ? Timestamp.valueOf(submission.getSubmittedAt()) : null);
-            stmt.executeUpdate();
-
-            try (ResultSet rs = stmt.getGeneratedKeys()) {
-                if (rs.next()) {
-                    submission.setId(rs.getLong(1));
-                }
-            }
+        return UnitOfWork.execute(() -> withHandle("Error creating quiz submission", handle -> {
+            Long id = handle.createUpdate("INSERT INTO quiz_submissions (quiz_id, student_id, score, started_at, completed_at, submitted_at) " +
+                    "VALUES (:quizId, :studentId, :score, :startedAt, :completedAt, :submittedAt)")
+                .bind("quizId", submission.getQuizId())
+                .bind("studentId", submission.getStudentId())
+                .bind("score", submission.getScore())
+                .bind("startedAt", Timestamp.valueOf(submission.getStartedAt()))
+                .bind("completedAt", toTimestamp(submission.getCompletedAt()))
+                .bind("submittedAt", toTimestamp(submission.getSubmittedAt()))
+                .executeAndReturnGeneratedKeys("id")
+                .mapTo(Long.class)
+                .one();
+            submission.setId(id);
 
             // Save answers
-            if (submission.getAnswers() != null && !submission.getAnswers().isEmpty()) {
-                String answerSql = "INSERT INTO submission_answers (submission_id, question_id, selected_answer_id, answer_text) VALUES (?, ?, ?, ?)";
-                try (PreparedStatement answerStmt = conn.prepareStatement(answerSql)) {
-                    for (Map.Entry<Long, Object> entry : submission.getAnswers().entrySet()) {
-                        answerStmt.setLong(1, submission.getId());
-                        answerStmt.setLong(2, entry.getKey());
-                        
-                        // Handle both string and number answers
-                        if (entry.getValue() instanceof String) {
-                            answerStmt.setNull(3, Types.BIGINT);
-                            answerStmt.setString(4, (String) entry.getValue());
-                        } else {
-                            answerStmt.setLong(3, ((Number) entry.getValue()).longValue());
-                            answerStmt.setNull(4, Types.VARCHAR);
-                        }
-                        
-                        answerStmt.executeUpdate();
-                    }
-                }
-            }
+            writeAnswers(handle, submission, INSERT_ANSWER_SQL);
 
             return submission;
-        } catch (SQLException e) {
-            e.printStackTrace();
-            throw new RuntimeException("Error creating quiz submission: " + e.getMessage(), e);
-        }
+        }));
     }
 
     @Override
     public Optional<QuizSubmission> findById(Long id) {
-        String sql = "SELECT * FROM quiz_submissions WHERE id = ?";
-        try (Connection conn = Main.getDataSource().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setLong(1, id);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    QuizSubmission submission = mapResultSetToSubmission(rs);
-                    submission.setAnswers(getSubmissionAnswers(submission.getId()));
-                    return Optional.of(submission);
-                }
-            }
-            return Optional.empty();
-        } catch (SQLException e) {
-            throw new RuntimeException("Error finding quiz submission", e);
-        }
+        return withHandle("Error finding quiz submission", handle -> {
+            Optional<QuizSubmission> submission = handle.createQuery("SELECT * FROM quiz_submissions WHERE id = :id")
+                .bind("id", id)
+                .mapTo(QuizSubmission.class)
+                .findOne();
+            submission.ifPresent(s -> attachAnswers(handle, List.of(s)));
+            return submission;
+        });
+    }
+
+    // The open attempt of a student for a quiz, looked up through the partial unique index
+    public Optional<QuizSubmission> findActiveSubmission(Long studentId, Long quizId) {
+        return findOne(ACTIVE_SUBMISSION_SQL, studentId, quizId);
+    }
+
+    // Opens a new attempt, or returns empty when the student already has an open one. A concurrent
+    // start that has not committed yet makes the insert wait for it, so a later findActiveSubmission
+    // sees the winner's row instead of both requests failing on the unique index.
+    public Optional<QuizSubmission> startSubmission(Long studentId, Long quizId, LocalDateTime startedAt) {
+        return UnitOfWork.execute(() -> withHandle("Error starting quiz submission", handle -> {
+            Optional<QuizSubmission> submission = handle.createQuery(START_SUBMISSION_SQL)
+                .bind("quizId", quizId)
+                .bind("studentId", studentId)
+                .bind("startedAt", Timestamp.valueOf(startedAt))
+                .mapTo(QuizSubmission.class)
+                .findOne();
+            submission.ifPresent(s -> s.setAnswers(new HashMap<>()));
+            return submission;
+        }));
+    }
+
+    // Open attempts first, then the most recently submitted one
+    public Optional<QuizSubmission> findLatestByStudentAndQuiz(Long studentId, Long quizId) {
+        return findOne(LATEST_SUBMISSION_SQL, studentId, quizId);
+    }
+
+    private Optional<QuizSubmission> findOne(String sql, Long studentId, Long quizId) {
+        return withHandle("Error finding quiz submission for student", handle -> {
+            Optional<QuizSubmission> submission = handle.createQuery(sql)
+                .bind("studentId", studentId)
+                .bind("quizId", quizId)
+                .mapTo(QuizSubmission.class)
+                .findFirst();
+            submission.ifPresent(s -> attachAnswers(handle, List.of(s)));
+            return submission;
+        });
     }
 
     public List<QuizSubmission> findByStudentId(Long studentId) {
-        String sql = "SELECT * FROM quiz_submissions WHERE student_id = ? ORDER BY submitted_at DESC";
-        List<QuizSubmission> submissions = new ArrayList<>();
-        try (Connection conn = Main.getDataSource().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setLong(1, studentId);
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    QuizSubmission submission = mapResultSetToSubmission(rs);
-                    submission.setAnswers(getSubmissionAnswers(submission.getId()));
-                    submissions.add(submission);
-                }
-            }
-            return submissions;
-        } catch (SQLException e) {
-            throw new RuntimeException("Error finding quiz submissions by student", e);
-        }
+        return withHandle("Error finding quiz submissions by student", handle ->
+            attachAnswers(handle, handle.createQuery(BY_STUDENT_SQL)
+                .bind("studentId", studentId)
+                .mapTo(QuizSubmission.class)
+                .list()));
     }
 
     public List<QuizSubmission> findByQuizId(Long quizId) {
-        String sql = "SELECT * FROM quiz_submissions WHERE quiz_id = ? ORDER BY submitted_at DESC";
-        List<QuizSubmission> submissions = new ArrayList<>();
-        try (Connection conn = Main.getDataSource().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setLong(1, quizId);
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    QuizSubmission submission = mapResultSetToSubmission(rs);
-                    submission.setAnswers(getSubmissionAnswers(submission.getId()));
-                    submissions.add(submission);
-                }
-            }
-            return submissions;
-        } catch (SQLException e) {
-            throw new RuntimeException("Error finding quiz submissions by quiz", e);
-        }
+        return withHandle("Error finding quiz submissions by quiz", handle ->
+            attachAnswers(handle, handle.createQuery(BY_QUIZ_SQL)
+                .bind("quizId", quizId)
+                .mapTo(QuizSubmission.class)
+                .list()));
+    }
+
+    public QuizAnalytics findAnalytics(Long quizId) {
+        return withHandle("Error computing quiz analytics", handle ->
+            handle.createQuery(ANALYTICS_SQL)
+                .bind("quizId", quizId)
+                .map((rs, ctx) -> {
+                    int total = rs.getInt("total_attempts");
+                    QuizAnalytics analytics = new QuizAnalytics();
+                    analytics.setQuizId(quizId);
+                    analytics.setTotalAttempts(total);
+                    analytics.setAverageScore(rs.getDouble("average_score"));
+                    analytics.setCompletionRate(total > 0 ? (double) rs.getInt("completed_attempts") / total : 0.0);
+                    analytics.setAverageTimeSpentMinutes(rs.getDouble("average_minutes"));
+                    return analytics;
+                })
+                .one());
+    }
+
+    // Keyset page of a quiz's submissions, newest first by ID
+    public List<QuizSubmission> findByQuizId(Long quizId, Long beforeId, int limit) {
+        Keyset page = Keyset.descending("id", beforeId, limit);
+        String sql = byQuizPageSql(page);
+        return withHandle("Error finding quiz submissions by quiz", handle ->
+            attachAnswers(handle, page.bind(handle.createQuery(sql).bind("quizId", quizId))
+                .mapTo(QuizSubmission.class)
+                .list()));
+    }
+
+    static String byQuizPageSql(Keyset page) {
+        return "SELECT * FROM quiz_submissions WHERE quiz_id = :quizId AND " + page.condition() + page.orderBy();
     }
 
     @Override
     public List<QuizSubmission> findAll() {
-        String sql = "SELECT * FROM quiz_submissions ORDER BY submitted_at DESC";
-        List<QuizSubmission> submissions = new ArrayList<>();
-        try (Connection conn = Main.getDataSource().getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            while (rs.next()) {
-                QuizSubmission submission = mapResultSetToSubmission(rs);
-                submission.setAnswers(getSubmissionAnswers(submission.getId()));
-                submissions.add(submission);
-            }
-            return submissions;
-        } catch (SQLException e) {
-            throw new RuntimeException("Error finding all quiz submissions", e);
-        }
+        return withHandle("Error finding all quiz submissions", handle ->
+            attachAnswers(handle, handle.createQuery("SELECT * FROM quiz_submissions ORDER BY submitted_at DESC")
+                .mapTo(QuizSubmission.class)
+                .list()));
     }
 
     @Override
     public QuizSubmission update(QuizSubmission submission) {
-        String sql = "UPDATE quiz_submissions SET score = ?, completed_at = ?, submitted_at = ? WHERE id = ?";
-        try (Connection conn = Main.getDataSource().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setInt(1, submission.getScore());
-            stmt.setTimestamp(2, submission.getCompletedAt() != null ? Timestamp.valueOf(submission.getCompletedAt()) : null);
-            stmt.setTimestamp(3, submission.getSubmittedAt() != null ? Timestamp.valueOf(submission.getSubmittedAt()) : null);
-            stmt.setLong(4, submission.getId());
-            stmt.executeUpdate();
-
-            // Update answers
-            if (submission.getAnswers() != null && !submission.getAnswers().isEmpty()) {
-                // Delete existing answers
-                String deleteSql = "DELETE FROM submission_answers WHERE submission_id = ?";
-                try (PreparedStatement deleteStmt = conn.prepareStatement(deleteSql)) {
-                    deleteStmt.setLong(1, submission.getId());
-                    deleteStmt.executeUpdate();
-                }
-
-                // Insert new answers
-                String answerSql = "INSERT INTO submission_answers (submission_id, question_id, selected_answer_id, answer_text) VALUES (?, ?, ?, ?)";
-                try (PreparedStatement answerStmt = conn.prepareStatement(answerSql)) {
-                    for (Map.Entry<Long, Object> entry : submission.getAnswers().entrySet()) {
-                        answerStmt.setLong(1, submission.getId());
-                        answerStmt.setLong(2, entry.getKey());
-                        
-                        // Handle both string and number answers
-                        if (entry.getValue() instanceof String) {
-                            answerStmt.setNull(3, Types.BIGINT);
-                            answerStmt.setString(4, (String) entry.getValue());
-                        } else {
-                            answerStmt.setLong(3, ((Number) entry.getValue()).longValue());
-                            answerStmt.setNull(4, Types.VARCHAR);
-                        }
-                        
-                        answerStmt.executeUpdate();
-                    }
-                }
+        return UnitOfWork.execute(() -> withHandle("Error updating quiz submission", handle -> {
+            handle.createUpdate("UPDATE quiz_submissions SET score = :score, completed_at = :completedAt, submitted_at = :submittedAt WHERE id = :id")
+                .bind("score", submission.getScore())
+                .bind("completedAt", toTimestamp(submission.getCompletedAt()))
+                .bind("submittedAt", toTimestamp(submission.getSubmittedAt()))
+                .bind("id", submission.getId())
+                .execute();
+
+            // Update answers in place: upsert changed rows, drop questions that are no longer answered.
+            // An empty map clears every answer; only a missing map leaves them alone.
+            if (submission.getAnswers() != null) {
+                writeAnswers(handle, submission, UPSERT_ANSWER_SQL);
+
+                handle.createUpdate(DELETE_STALE_ANSWERS_SQL)
+                    .bind("submissionId", submission.getId())
+                    .bindArray("answered", Long.class, submission.getAnswers().keySet())
+                    .execute();
             }
 
             return submission;
-        } catch (SQLException e) {
-            throw new RuntimeException("Error updating quiz submission", e);
-        }
+        }));
     }
 
     @Override
     public void delete(Long id) {
-        String sql = "DELETE FROM quiz_submissions WHERE id = ?";
-        try (Connection conn = Main.getDataSource().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setLong(1, id);
-            stmt.executeUpdate();
-        } catch (SQLException e) {
-            throw new RuntimeException("Error deleting quiz submission", e);
+        withHandle("Error deleting quiz submission", handle ->
+            handle.createUpdate("DELETE FROM quiz_submissions WHERE id = :id").bind("id", id).execute());
+    }
+
+    private void writeAnswers(Handle handle, QuizSubmission submission, String answerSql) {
+        if (submission.getAnswers() == null || submission.getAnswers().isEmpty()) {
+            return;
+        }
+        PreparedBatch batch = handle.prepareBatch(answerSql);
+        for (Map.Entry<Long, Object> entry : submission.getAnswers().entrySet()) {
+            batch.bind("submissionId", submission.getId())
+                .bind("questionId", entry.getKey());
+
+            // Handle both string and number answers
+            if (entry.getValue() instanceof String) {
+                batch.bindNull("selectedAnswerId", Types.BIGINT)
+                    .bind("answerText", (String) entry.getValue());
+            } else {
+                batch.bind("selectedAnswerId", ((Number) entry.getValue()).longValue())
+                    .bindNull("answerText", Types.VARCHAR);
+            }
+
+            batch.add();
         }
+        batch.execute();
     }
 
-    private QuizSubmission mapResultSetToSubmission(ResultSet rs) throws SQLException {
-        QuizSubmission submission = new QuizSubmission();
-        submission.setId(rs.getLong("id"));
-        submission.setQuizId(rs.getLong("quiz_id"));
-        submission.setStudentId(rs.getLong("student_id"));
-        submission.setScore(rs.getInt("score"));
-        submission.setStartedAt(rs.getTimestamp("started_at").toLocalDateTime());
-        
-        Timestamp completedAt = rs.getTimestamp("completed_at");
-        submission.setCompletedAt(completedAt != null ? completedAt.toLocalDateTime() : null);
-        
-        Timestamp submittedAt = rs.getTimestamp("submitted_at");
-        submission.setSubmittedAt(submittedAt != null ? submittedAt.toLocalDateTime() : null);
-        
-        return submission;
-    }
-
-    private Map<Long, Object> getSubmissionAnswers(Long submissionId) {
-        String sql = "SELECT question_id, selected_answer_id, answer_text FROM submission_answers WHERE submission_id = ?";
-        Map<Long, Object> answers = new HashMap<>();
-        try (Connection conn = Main.getDataSource().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setLong(1, submissionId);
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    Long questionId = rs.getLong("question_id");
-                    Long selectedAnswerId = rs.getLong("selected_answer_id");
-                    String textAnswer = rs.getString("answer_text");
-                    
+    // Fills in the answers of the given submissions with one query per page of submissions,
+    // reusing the caller's handle instead of checking out another connection per row.
+    private List<QuizSubmission> attachAnswers(Handle handle, List<QuizSubmission> submissions) {
+        Map<Long, QuizSubmission> byId = new HashMap<>();
+        for (QuizSubmission submission : submissions) {
+            submission.setAnswers(new HashMap<>());
+            byId.put(submission.getId(), submission);
+        }
+
+        List<Long> ids = new ArrayList<>(byId.keySet());
+        for (int from = 0; from < ids.size(); from += ANSWER_PAGE_SIZE) {
+            List<Long> page = ids.subList(from, Math.min(from + ANSWER_PAGE_SIZE, ids.size()));
+            // Columns are read by position, matching the select list
+            handle.createQuery(SELECT_ANSWERS_SQL)
+                .bindArray("ids", Long.class, page)
+                .reduceResultSet(byId, (acc, rs, ctx) -> {
+                    Long selectedAnswerId = rs.getLong(3);
+                    String textAnswer = rs.getString(4);
+
                     // If there's a text answer, use that, otherwise use the selected answer ID
-                    answers.put(questionId, textAnswer != null ? textAnswer : selectedAnswerId);
-                }
-            }
-            return answers;
-        } catch (SQLException e) {
-            throw new RuntimeException("Error getting submission answers", e);
+                    acc.get(rs.getLong(1)).getAnswers().put(rs.getLong(2), textAnswer != null ? textAnswer : selectedAnswerId);
+                    return acc;
+                });
         }
+        return submissions;
+    }
+
+    private static Timestamp toTimestamp(LocalDateTime value) {
+        return value != null ? Timestamp.valueOf(value) : null;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,204 @@
+package com.quizplatform.repositories;
+
+import com.quizplatform.Main;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.regex.Pattern;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Statements slower than SLOW_QUERY_MS (default 200, negative disables), kept in a fixed-size ring of
+// the most recent SLOW_QUERY_LOG_SIZE entries. Elapsed time is that of the execute call, which with
+// pgjdbc's default fetch size includes reading every row. Queries are logged once their rows have
+// been read, with the number of rows the caller read.
+// Bind values are redacted in everything exposed: strings and binary data only show their length.
+// Raw values can be emails, password hashes or answers, so they are only kept in memory, for
+// capturing a plan with EXPLAIN (ANALYZE, BUFFERS), when SLOW_QUERY_RAW_BINDS=true. Without them
+// only statements whose binds needed no redaction (numbers, booleans, dates) can be explained.
+public final class SlowQueryLog {
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryLog.class);
+
+    private static final long THRESHOLD_NANOS =
+        Long.parseLong(System.getenv().getOrDefault("SLOW_QUERY_MS", "200")) * 1_000_000L;
+    private static final int CAPACITY = Integer.parseInt(System.getenv().getOrDefault("SLOW_QUERY_LOG_SIZE", "100"));
+    private static final boolean KEEP_RAW_BINDS = Boolean.parseBoolean(System.getenv().getOrDefault("SLOW_QUERY_RAW_BINDS", "false"));
+    // Rejected before EXPLAIN ANALYZE runs them; the read-only transaction below is the backstop
+    private static final Pattern DATA_MODIFYING =
+        Pattern.compile("\\b(INSERT|UPDATE|DELETE|MERGE|TRUNCATE|COPY)\\b", Pattern.CASE_INSENSITIVE);
+    private static final int EXPLAIN_TIMEOUT_SECONDS = 30;
+
+    private static final AtomicReferenceArray<Entry> ring = new AtomicReferenceArray<>(CAPACITY);
+    private static final AtomicLong sequence = new AtomicLong();
+
+    private SlowQueryLog() {}
+
+    static boolean isEnabled() {
+        return THRESHOLD_NANOS >= 0;
+    }
+
+    static boolean isSlow(long nanos) {
+        return isEnabled() && nanos >= THRESHOLD_NANOS;
+    }
+
+    static void record(String sql, Map<Integer, Object> binds, long rows, long nanos) {
+        if (!isEnabled() || nanos < THRESHOLD_NANOS || sql == null) {
+            return;
+        }
+        long id = sequence.incrementAndGet();
+        Entry entry = new Entry(id, sql, binds, rows, nanos);
+        ring.set((int) (id % CAPACITY), entry);
+        log.warn("Slow query #{} took {}ms, {} rows: {} binds={}", id, nanos / 1_000_000, rows, sql, entry.getBinds());
+    }
+
+    // Newest first
+    public static List<Entry> entries() {
+        List<Entry> entries = new ArrayList<>(CAPACITY);
+        for (int i = 0; i < CAPACITY; i++) {
+            Entry entry = ring.get(i);
+            if (entry != null) {
+                entries.add(entry);
+            }
+        }
+        entries.sort((a, b) -> Long.compare(b.id, a.id));
+        return entries;
+    }
+
+    public static Optional<Entry> find(long id) {
+        Entry entry = ring.get((int) (id % CAPACITY));
+        return entry != null && entry.id == id ? Optional.of(entry) : Optional.empty();
+    }
+
+    // Runs EXPLAIN (ANALYZE, BUFFERS) for a captured query on its own connection, inside a read-only
+    // transaction that is rolled back. ANALYZE executes the statement, so anything that could write,
+    // including a data-modifying CTE, is refused.
+    public static String explain(Entry entry) {
+        String sql = entry.sql.trim();
+        if (!sql.regionMatches(true, 0, "SELECT", 0, 6) && !sql.regionMatches(true, 0, "WITH", 0, 4)) {
+            throw new IllegalArgumentException("Only SELECT statements can be explained");
+        }
+        if (DATA_MODIFYING.matcher(sql).find()) {
+            throw new IllegalArgumentException("Statements that modify data cannot be explained");
+        }
+        if (entry.explainBinds == null) {
+            throw new IllegalArgumentException("Bind values were redacted; set SLOW_QUERY_RAW_BINDS=true to explain this statement");
+        }
+        // Straight from the pool, past the counting wrapper, so the EXPLAIN cannot log itself as slow
+        try (Connection connection = Main.getDataSource().unwrap(DataSource.class).getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                try (Statement setup = connection.createStatement()) {
+                    setup.execute("SET TRANSACTION READ ONLY");
+                    setup.execute("SET LOCAL statement_timeout = '" + EXPLAIN_TIMEOUT_SECONDS + "s'");
+                }
+                try (PreparedStatement statement = connection.prepareStatement("EXPLAIN (ANALYZE, BUFFERS) " + sql)) {
+                    for (Map.Entry<Integer, Object> bind : entry.explainBinds.entrySet()) {
+                        statement.setObject(bind.getKey(), bind.getValue());
+                    }
+                    StringBuilder plan = new StringBuilder();
+                    try (ResultSet rs = statement.executeQuery()) {
+                        while (rs.next()) {
+                            plan.append(rs.getString(1)).append('\n');
+                        }
+                    }
+                    entry.plan = plan.toString();
+                    return entry.plan;
+                }
+            } finally {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error explaining slow query: " + e.getMessage(), e);
+        }
+    }
+
+    private static Object redact(Object value) {
+        if (value == null || value instanceof Number || value instanceof Boolean
+                || value instanceof Date || value instanceof TemporalAccessor) {
+            return value;
+        }
+        if (value instanceof String) {
+            return "<string:" + ((String) value).length() + ">";
+        }
+        if (value instanceof byte[]) {
+            return "<bytes:" + ((byte[]) value).length + ">";
+        }
+        return "<" + value.getClass().getSimpleName() + ">";
+    }
+
+    public static final class Entry {
+        private final long id;
+        private final String sql;
+        private final Map<Integer, Object> binds;
+        // Values to bind for EXPLAIN: the raw ones if kept, else null when any value was redacted
+        private final Map<Integer, Object> explainBinds;
+        private final long rows;
+        private final long nanos;
+        private final Instant capturedAt = Instant.now();
+        private final String thread = Thread.currentThread().getName();
+        private volatile String plan;
+
+        Entry(long id, String sql, Map<Integer, Object> binds, long rows, long nanos) {
+            this.id = id;
+            this.sql = sql;
+            Map<Integer, Object> raw = binds != null ? binds : Collections.emptyMap();
+            Map<Integer, Object> redacted = new LinkedHashMap<>();
+            for (Map.Entry<Integer, Object> bind : raw.entrySet()) {
+                redacted.put(bind.getKey(), redact(bind.getValue()));
+            }
+            this.binds = Collections.unmodifiableMap(redacted);
+            this.explainBinds = KEEP_RAW_BINDS || redacted.equals(raw) ? raw : null;
+            this.rows = rows;
+            this.nanos = nanos;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public Map<Integer, Object> getBinds() {
+            return binds;
+        }
+
+        // Rows the caller read for a query, affected rows for an update; -1 when the driver did not
+        // report a count or the result set was never asked for
+        public long getRows() {
+            return rows;
+        }
+
+        public double getElapsedMillis() {
+            return nanos / 1_000_000.0;
+        }
+
+        public Instant getCapturedAt() {
+            return capturedAt;
+        }
+
+        public String getThread() {
+            return thread;
+        }
+
+        public String getPlan() {
+            return plan;
+        }
+    }
+}
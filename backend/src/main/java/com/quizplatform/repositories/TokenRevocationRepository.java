@@ -0,0 +1,44 @@
+package com.quizplatform.repositories;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+
+// Instants are bound as OffsetDateTime so they reach the TIMESTAMPTZ columns without passing
+// through the JVM's default time zone
+public class TokenRevocationRepository extends JdbiRepository {
+    static final String REVOKED_SINCE_SQL = "SELECT user_id, revoked_before FROM token_revocations WHERE revoked_before > :since";
+
+    public void revokeUser(Long userId, Instant revokedBefore, String reason) {
+        withHandle("Error revoking tokens", handle ->
+            handle.createUpdate("INSERT INTO token_revocations (user_id, revoked_before, reason, updated_at) " +
+                    "VALUES (:userId, :revokedBefore, :reason, CURRENT_TIMESTAMP) " +
+                    "ON CONFLICT (user_id) DO UPDATE SET " +
+                    "revoked_before = GREATEST(token_revocations.revoked_before, EXCLUDED.revoked_before), " +
+                    "reason = EXCLUDED.reason, updated_at = CURRENT_TIMESTAMP")
+                .bind("userId", userId)
+                .bind("revokedBefore", revokedBefore.atOffset(ZoneOffset.UTC))
+                .bind("reason", reason)
+                .execute());
+    }
+
+    // Cut-off per user for revocations newer than the given instant
+    public Map<Long, Instant> findRevokedSince(Instant since) {
+        return withHandle("Error loading token revocations", handle ->
+            handle.createQuery(REVOKED_SINCE_SQL)
+                .bind("since", since.atOffset(ZoneOffset.UTC))
+                .reduceResultSet(new HashMap<Long, Instant>(), (revocations, rs, ctx) -> {
+                    revocations.put(rs.getLong(1), rs.getObject(2, OffsetDateTime.class).toInstant());
+                    return revocations;
+                }));
+    }
+
+    public int deleteRevokedBefore(Instant cutoff) {
+        return withHandle("Error deleting token revocations", handle ->
+            handle.createUpdate("DELETE FROM token_revocations WHERE revoked_before < :cutoff")
+                .bind("cutoff", cutoff.atOffset(ZoneOffset.UTC))
+                .execute());
+    }
+}
@@ -0,0 +1,148 @@
+package com.quizplatform.repositories;
+
+import com.quizplatform.Main;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Thread-bound connection scope shared by every repository. While a unit is active, getConnection()
+// hands out one lazily checked-out connection with auto-commit off, and end() commits or rolls it back
+// once. Without an active unit, repositories get a plain auto-commit connection from the pool.
+public final class UnitOfWork {
+    private static final Logger log = LoggerFactory.getLogger(UnitOfWork.class);
+    private static final ThreadLocal<UnitOfWork> CURRENT = new ThreadLocal<>();
+
+    private Connection connection;
+    private Connection sharedConnection;
+    private int connectionsHeld;
+    private final List<Runnable> afterCommit = new ArrayList<>();
+
+    private UnitOfWork() {}
+
+    public static void begin() {
+        UnitOfWork stale = CURRENT.get();
+        if (stale != null) {
+            // A previous request on this thread never ended its unit; don't let it leak into this one
+            log.warn("Rolling back unit of work left open on {}", Thread.currentThread().getName());
+            stale.finish(false);
+        }
+        CURRENT.set(new UnitOfWork());
+    }
+
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    // Returns the number of pooled connections the unit held, 0 when none was active
+    public static int end(boolean commit) {
+        UnitOfWork unit = CURRENT.get();
+        if (unit == null) {
+            return 0;
+        }
+        CURRENT.remove();
+        unit.finish(commit);
+        if (commit) {
+            unit.runAfterCommit();
+        }
+        return unit.connectionsHeld;
+    }
+
+    // Runs the action once the current unit has committed, or right away when no unit is active.
+    // Used to drop cached reads only after the write is visible to other connections.
+    public static void afterCommit(Runnable action) {
+        UnitOfWork unit = CURRENT.get();
+        if (unit == null) {
+            action.run();
+        } else {
+            unit.afterCommit.add(action);
+        }
+    }
+
+    // Joins the current unit, or runs the work in a new one that commits on return and rolls back on failure
+    public static <T> T execute(Callable<T> work) {
+        if (isActive()) {
+            return call(work);
+        }
+        begin();
+        boolean success = false;
+        try {
+            T result = call(work);
+            success = true;
+            return result;
+        } finally {
+            end(success);
+        }
+    }
+
+    public static Connection getConnection() throws SQLException {
+        UnitOfWork unit = CURRENT.get();
+        if (unit == null) {
+            return Main.getDataSource().getConnection();
+        }
+        return unit.connection();
+    }
+
+    private Connection connection() throws SQLException {
+        if (connection == null) {
+            Connection conn = Main.getDataSource().getConnection();
+            try {
+                conn.setAutoCommit(false);
+            } catch (SQLException e) {
+                conn.close();
+                throw e;
+            }
+            connection = conn;
+            sharedConnection = new NonClosingConnection(conn);
+            connectionsHeld++;
+        }
+        return sharedConnection;
+    }
+
+    private void finish(boolean commit) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            if (commit) {
+                connection.commit();
+            } else {
+                connection.rollback();
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error ending unit of work", e);
+        } finally {
+            try {
+                connection.setAutoCommit(true);
+                connection.close();
+            } catch (SQLException e) {
+                log.warn("Error releasing connection", e);
+            }
+            connection = null;
+            sharedConnection = null;
+        }
+    }
+
+    private void runAfterCommit() {
+        for (Runnable action : afterCommit) {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                log.error("After-commit action failed", e);
+            }
+        }
+    }
+
+    private static <T> T call(Callable<T> work) {
+        try {
+            return work.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
+    }
+}
@@ -1,130 +1,149 @@
 package com.quizplatform.repositories;
 
-import com.quizplatform.Main;
+import com.quizplatform.cache.TtlCache;
 import com.quizplatform.models.User;
-import java.sql.*;
-import java.util.ArrayList;
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 
-public class UserRepository implements BaseRepository<User> {
+public class UserRepository extends JdbiRepository implements BaseRepository<User> {
+    private static final int MAX_CACHED_USERS = 10_000;
+    private static final Duration CACHE_TTL = Duration.ofMinutes(5);
+    static final String BY_ID_SQL = "SELECT * FROM users WHERE id = :id";
+    static final String BY_EMAIL_SQL = "SELECT * FROM users WHERE email = :email";
+
+    // Read-through cache by ID with a secondary email -> ID index. Shared by all repository
+    // instances; writes refresh it after commit. Callers always get their own copy. Logins and
+    // password changes bypass it through findCredentialsByEmail and findCredentialsById.
+    private static final TtlCache<Long, User> usersById = new TtlCache<>("usersById", MAX_CACHED_USERS, CACHE_TTL);
+    private static final TtlCache<String, Long> userIdsByEmail = new TtlCache<>("userIdsByEmail", MAX_CACHED_USERS, CACHE_TTL);
+
     public UserRepository() {}
 
     @Override
     public User create(User user) {
-        String sql = "INSERT INTO users (email, password, first_name, last_name, role, enabled, created_at, updated_at) VALUES (?, ?, ?, ?, ?, TRUE, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)";
-        try (Connection connection = Main.getDataSource().getConnection();
-             PreparedStatement stmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            stmt.setString(1, user.getEmail());
-            stmt.setString(2, user.getPassword());
-            stmt.setString(3, user.getFirstName());
-            stmt.setString(4, user.getLastName());
-            stmt.setString(5, user.getRole().name());
-            
-            stmt.executeUpdate();
-            
-            try (ResultSet rs = stmt.getGeneratedKeys()) {
-                if (rs.next()) {
-                    user.setId(rs.getLong(1));
-                }
-            }
+        return withHandle("Error creating user", handle -> {
+            Long id = handle.createUpdate("INSERT INTO users (email, password, first_name, last_name, role, enabled, created_at, updated_at) " +
+                    "VALUES (:email, :password, :firstName, :lastName, :role, TRUE, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)")
+                .bind("email", user.getEmail())
+                .bind("password", user.getPassword())
+                .bind("firstName", user.getFirstName())
+                .bind("lastName", user.getLastName())
+                .bind("role", user.getRole().name())
+                .executeAndReturnGeneratedKeys("id")
+                .mapTo(Long.class)
+                .one();
+            user.setId(id);
             return user;
-        } catch (SQLException e) {
-            e.printStackTrace(); // Print the full stack trace
-            throw new RuntimeException("Error creating user: " + e.getMessage() + "\nSQL State: " + e.getSQLState() + "\nError Code: " + e.getErrorCode(), e);
-        }
+        });
     }
 
     @Override
     public Optional<User> findById(Long id) {
-        String sql = "SELECT * FROM users WHERE id = ?";
-        try (Connection connection = Main.getDataSource().getConnection();
-             PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setLong(1, id);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return Optional.of(mapResultSetToUser(rs));
-                }
-            }
-            return Optional.empty();
-        } catch (SQLException e) {
-            throw new RuntimeException("Error finding user", e);
-        }
+        return Optional.ofNullable(usersById.get(id, () -> loadById(id).orElse(null))).map(UserRepository::copy);
     }
 
     public Optional<User> findByEmail(String email) {
-        String sql = "SELECT * FROM users WHERE email = ?";
-        try (Connection connection = Main.getDataSource().getConnection();
-             PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setString(1, email);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return Optional.of(mapResultSetToUser(rs));
-                }
-            }
+        Long id = userIdsByEmail.get(email, () -> loadByEmail(email).map(User::getId).orElse(null));
+        if (id == null) {
             return Optional.empty();
-        } catch (SQLException e) {
-            throw new RuntimeException("Error finding user by email", e);
         }
+
+        // The index may point at a user whose email has since changed or who was deleted
+        Optional<User> user = findById(id).filter(u -> email.equals(u.getEmail()));
+        if (user.isEmpty()) {
+            userIdsByEmail.invalidate(email);
+            return loadByEmail(email);
+        }
+        return user;
+    }
+
+    // Password checks always read the row: a cached copy can keep accepting a password that was
+    // changed, or an account that was deleted, on another instance until its entry expires
+    public Optional<User> findCredentialsByEmail(String email) {
+        return loadByEmail(email);
+    }
+
+    public Optional<User> findCredentialsById(Long id) {
+        return loadById(id);
+    }
+
+    private Optional<User> loadById(Long id) {
+        return withHandle("Error finding user", handle ->
+            handle.createQuery(BY_ID_SQL)
+                .bind("id", id)
+                .mapTo(User.class)
+                .findOne());
+    }
+
+    private Optional<User> loadByEmail(String email) {
+        return withHandle("Error finding user by email", handle ->
+            handle.createQuery(BY_EMAIL_SQL)
+                .bind("email", email)
+                .mapTo(User.class)
+                .findOne());
     }
 
     @Override
     public List<User> findAll() {
-        String sql = "SELECT * FROM users";
-        List<User> users = new ArrayList<>();
-        try (Connection connection = Main.getDataSource().getConnection();
-             Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            while (rs.next()) {
-                users.add(mapResultSetToUser(rs));
-            }
-            return users;
-        } catch (SQLException e) {
-            throw new RuntimeException("Error finding all users", e);
-        }
+        return findAll(null, 0);
+    }
+
+    // Keyset page ordered by user ID; a limit of 0 returns every user after the given ID
+    public List<User> findAll(Long afterId, int limit) {
+        Keyset page = Keyset.ascending("id", afterId, limit);
+        String sql = pageSql(page);
+        return withHandle("Error finding all users", handle ->
+            page.bind(handle.createQuery(sql)).mapTo(User.class).list());
+    }
+
+    static String pageSql(Keyset page) {
+        return "SELECT * FROM users WHERE " + page.condition() + page.orderBy();
     }
 
+    // Returns the stored row, and writes it through to the cache once the update commits
     @Override
     public User update(User user) {
-        String sql = "UPDATE users SET email = ?, password = ?, first_name = ?, last_name = ?, role = ?, updated_at = CURRENT_TIMESTAMP WHERE id = ?";
-        try (Connection connection = Main.getDataSource().getConnection();
-             PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setString(1, user.getEmail());
-            stmt.setString(2, user.getPassword());
-            stmt.setString(3, user.getFirstName());
-            stmt.setString(4, user.getLastName());
-            stmt.setString(5, user.getRole().name());
-            stmt.setLong(6, user.getId());
-            
-            stmt.executeUpdate();
-            return user;
-        } catch (SQLException e) {
-            throw new RuntimeException("Error updating user", e);
+        User saved = withHandle("Error updating user", handle ->
+            handle.createQuery("UPDATE users SET email = :email, password = :password, first_name = :firstName, last_name = :lastName, role = :role, updated_at = CURRENT_TIMESTAMP WHERE id = :id RETURNING *")
+                .bind("email", user.getEmail())
+                .bind("password", user.getPassword())
+                .bind("firstName", user.getFirstName())
+                .bind("lastName", user.getLastName())
+                .bind("role", user.getRole().name())
+                .bind("id", user.getId())
+                .mapTo(User.class)
+                .findOne()
+                .orElse(user));
+        if (saved.getCreatedAt() != null) {
+            User cached = copy(saved);
+            UnitOfWork.afterCommit(() -> {
+                usersById.put(cached.getId(), cached);
+                userIdsByEmail.put(cached.getEmail(), cached.getId());
+            });
+        } else {
+            UnitOfWork.afterCommit(() -> usersById.invalidate(user.getId()));
         }
+        return saved;
     }
 
     @Override
     public void delete(Long id) {
-        String sql = "DELETE FROM users WHERE id = ?";
-        try (Connection connection = Main.getDataSource().getConnection();
-             PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setLong(1, id);
-            stmt.executeUpdate();
-        } catch (SQLException e) {
-            throw new RuntimeException("Error deleting user", e);
-        }
+        withHandle("Error deleting user", handle ->
+            handle.createUpdate("DELETE FROM users WHERE id = :id").bind("id", id).execute());
+        UnitOfWork.afterCommit(() -> usersById.invalidate(id));
     }
 
-    private User mapResultSetToUser(ResultSet rs) throws SQLException {
-        User user = new User();
-        user.setId(rs.getLong("id"));
-        user.setEmail(rs.getString("email"));
-        user.setPassword(rs.getString("password"));
-        user.setFirstName(rs.getString("first_name"));
-        user.setLastName(rs.getString("last_name"));
-        user.setRole(User.UserRole.valueOf(rs.getString("role")));
-        user.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
-        user.setUpdatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
-        return user;
+    private static User copy(User user) {
+        User copy = new User();
+        copy.setId(user.getId());
+        copy.setEmail(user.getEmail());
+        copy.setPassword(user.getPassword());
+        copy.setFirstName(user.getFirstName());
+        copy.setLastName(user.getLastName());
+        copy.setRole(user.getRole());
+        copy.setCreatedAt(user.getCreatedAt());
+        copy.setUpdatedAt(user.getUpdatedAt());
+        return copy;
     }
-} 
\ No newline at end of file
+}
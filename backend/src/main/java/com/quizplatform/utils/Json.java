@@ -0,0 +1,36 @@
+package com.quizplatform.utils;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import java.io.IOException;
+import java.io.OutputStream;
+
+// The one ObjectMapper of the application, also installed as Javalin's JSON mapper so ctx.json(),
+// ctx.bodyAsClass() and the controllers serialize dates the same way (ISO-8601 strings).
+// Blackbird replaces reflective getter/setter calls with generated lambdas.
+public final class Json {
+    public static final ObjectMapper MAPPER = createMapper();
+
+    private Json() {}
+
+    private static ObjectMapper createMapper() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        mapper.registerModule(new BlackbirdModule());
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        // The caller owns the stream; Javalin closes the response itself
+        mapper.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        return mapper;
+    }
+
+    public static void write(OutputStream out, Object value) throws IOException {
+        MAPPER.writeValue(out, value);
+    }
+
+    public static byte[] toBytes(Object value) throws IOException {
+        return MAPPER.writeValueAsBytes(value);
+    }
+}
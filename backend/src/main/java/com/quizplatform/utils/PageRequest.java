@@ -0,0 +1,68 @@
+package com.quizplatform.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Cursor-based page of a list endpoint. The cursor is an opaque token wrapping the sort key
+// of the last row of the previous page; clients only ever echo it back.
+public class PageRequest {
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 200;
+
+    private static final String CURSOR_PREFIX = "k1:";
+
+    private final Long after;
+    private final int limit;
+
+    private PageRequest(Long after, int limit) {
+        this.after = after;
+        this.limit = limit;
+    }
+
+    // Without ?limit= a page holds DEFAULT_LIMIT rows, so no list endpoint returns a whole table
+    public static PageRequest of(String cursor, String limit) {
+        int size = DEFAULT_LIMIT;
+        if (limit != null) {
+            try {
+                size = Integer.parseInt(limit);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid limit: " + limit);
+            }
+            if (size < 1) {
+                throw new IllegalArgumentException("Limit must be positive");
+            }
+            size = Math.min(size, MAX_LIMIT);
+        }
+        return new PageRequest(cursor != null ? decode(cursor) : null, size);
+    }
+
+    public Long getAfter() {
+        return after;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    // Repositories fetch one extra row to learn whether another page follows
+    public int fetchSize() {
+        return limit + 1;
+    }
+
+    public static String encode(long key) {
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString((CURSOR_PREFIX + key).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Long decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!raw.startsWith(CURSOR_PREFIX)) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return Long.parseLong(raw.substring(CURSOR_PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
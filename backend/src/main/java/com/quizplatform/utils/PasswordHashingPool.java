@@ -0,0 +1,133 @@
+package com.quizplatform.utils;
+
+import com.quizplatform.metrics.LatencyHistogram;
+import com.quizplatform.metrics.Metrics;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Runs BCrypt on a fixed pool sized to the CPU count so a burst of logins can't occupy every
+// request thread. Request threads wait for their own hash; when the queue is full the work is
+// refused right away with PasswordHashingOverloadedException instead of queueing without bound.
+public final class PasswordHashingPool {
+    private static final int THREADS = Runtime.getRuntime().availableProcessors();
+    private static final int QUEUE_CAPACITY = Integer.parseInt(
+        System.getenv().getOrDefault("PASSWORD_HASH_QUEUE", String.valueOf(THREADS * 8)));
+    private static final long TIMEOUT_SECONDS = 30;
+    static final int RETRY_AFTER_SECONDS = 2;
+
+    private static final ThreadPoolExecutor executor = createExecutor();
+
+    private static final LongAdder completed = new LongAdder();
+    private static final LongAdder rejected = new LongAdder();
+    private static final LongAdder hashNanos = new LongAdder();
+    private static final LongAdder waitNanos = new LongAdder();
+    private static final AtomicLong maxHashNanos = new AtomicLong();
+    // Separate distributions tell a saturated pool (wait grows) apart from a slow cost factor (hash grows)
+    private static final LatencyHistogram waitHistogram = Metrics.histogram(
+        "password_hashing_queue_wait_seconds", "Time a password hash waited for a hashing thread");
+    private static final LatencyHistogram hashHistogram = Metrics.histogram(
+        "password_hashing_duration_seconds", "Time spent running BCrypt");
+
+    static {
+        Metrics.gauge("password_hashing_queue_depth", "Password hashes waiting for a hashing thread", () -> executor.getQueue().size());
+        Metrics.gauge("password_hashing_active_threads", "Hashing threads currently running BCrypt", executor::getActiveCount);
+        Metrics.counterFunction("password_hashing_completed_total", "Completed password hashes", completed::sum);
+        Metrics.counterFunction("password_hashing_rejected_total", "Password hashes refused because the queue was full", rejected::sum);
+    }
+
+    private PasswordHashingPool() {}
+
+    private static ThreadPoolExecutor createExecutor() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(THREADS, THREADS, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+            runnable -> {
+                Thread thread = new Thread(runnable, "password-hasher-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    public static <T> T run(Callable<T> work) {
+        long queuedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                waitNanos.add(startedAt - queuedAt);
+                waitHistogram.record(startedAt - queuedAt);
+                try {
+                    return work.call();
+                } finally {
+                    long elapsed = System.nanoTime() - startedAt;
+                    hashNanos.add(elapsed);
+                    hashHistogram.record(elapsed);
+                    maxHashNanos.accumulateAndGet(elapsed, Math::max);
+                    completed.increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingOverloadedException(RETRY_AFTER_SECONDS);
+        }
+
+        try {
+            return future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new PasswordHashingOverloadedException(RETRY_AFTER_SECONDS);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new RuntimeException(cause.getMessage(), cause);
+        }
+    }
+
+    public static Map<String, Object> stats() {
+        long count = completed.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("threads", THREADS);
+        stats.put("activeThreads", executor.getActiveCount());
+        stats.put("queueDepth", executor.getQueue().size());
+        stats.put("queueCapacity", QUEUE_CAPACITY);
+        stats.put("completed", count);
+        stats.put("rejected", rejected.sum());
+        stats.put("avgHashMillis", count > 0 ? hashNanos.sum() / 1e6 / count : 0.0);
+        stats.put("maxHashMillis", maxHashNanos.get() / 1e6);
+        stats.put("avgQueueWaitMillis", count > 0 ? waitNanos.sum() / 1e6 / count : 0.0);
+        return stats;
+    }
+
+    public static class PasswordHashingOverloadedException extends RuntimeException {
+        private final int retryAfterSeconds;
+
+        public PasswordHashingOverloadedException(int retryAfterSeconds) {
+            super("Too many sign-in requests, please retry shortly");
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+
+        public int getRetryAfterSeconds() {
+            return retryAfterSeconds;
+        }
+    }
+}
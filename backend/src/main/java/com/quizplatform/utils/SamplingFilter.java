@@ -0,0 +1,36 @@
+package com.quizplatform.utils;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.filter.Filter;
+import ch.qos.logback.core.spi.FilterReply;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Logback filter that keeps one in `rate` events of a logger category (the logger name or anything
+// below it). WARN and ERROR are never sampled out. Configured per category in logback.xml.
+public class SamplingFilter extends Filter<ILoggingEvent> {
+    private final AtomicLong counter = new AtomicLong();
+    private String category = "";
+    private int rate = 1;
+
+    @Override
+    public FilterReply decide(ILoggingEvent event) {
+        if (rate <= 1 || event.getLevel().isGreaterOrEqual(Level.WARN) || !inCategory(event.getLoggerName())) {
+            return FilterReply.NEUTRAL;
+        }
+        return counter.getAndIncrement() % rate == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private boolean inCategory(String loggerName) {
+        return loggerName.startsWith(category)
+            && (loggerName.length() == category.length() || loggerName.charAt(category.length()) == '.');
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public void setRate(int rate) {
+        this.rate = rate;
+    }
+}
@@ -3,34 +3,57 @@ package com.quizplatform.utils;
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.exceptions.TokenExpiredException;
 import com.auth0.jwt.interfaces.DecodedJWT;
+import com.quizplatform.cache.TtlCache;
+import com.quizplatform.models.AuthPrincipal;
 import com.quizplatform.models.User;
 import com.quizplatform.config.AppConfig;
 import at.favre.lib.crypto.bcrypt.BCrypt;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
 
 public class SecurityUtils {
     private static final Algorithm algorithm = Algorithm.HMAC256(AppConfig.getJwtSecret());
-    private static final JWTVerifier verifier = JWT.require(algorithm).build();
+    // A token issued right after a revocation carries the revocation's cut-off as iat, up to a second ahead
+    private static final JWTVerifier verifier = JWT.require(algorithm).acceptIssuedAt(1).build();
     private static final long TOKEN_EXPIRATION = 24 * 60 * 60 * 1000; // 24 hours
 
+    // Verified tokens by SHA-256 digest, so the raw token is never kept. An entry is only served
+    // until the token's own exp, even when the cache TTL is longer.
+    private static final TtlCache<String, AuthPrincipal> verifiedTokens =
+        new TtlCache<>("verifiedTokens", 10_000, Duration.ofMinutes(10));
+
+    // BCrypt runs on PasswordHashingPool; both throw PasswordHashingOverloadedException when it is saturated
     public static String hashPassword(String password) {
-        return BCrypt.withDefaults().hashToString(12, password.toCharArray());
+        return PasswordHashingPool.run(() -> BCrypt.withDefaults().hashToString(12, password.toCharArray()));
     }
 
     public static boolean verifyPassword(String password, String hashedPassword) {
-        BCrypt.Result result = BCrypt.verifyer().verify(password.toCharArray(), hashedPassword);
-        return result.verified;
+        return PasswordHashingPool.run(() -> BCrypt.verifyer().verify(password.toCharArray(), hashedPassword).verified);
     }
 
     public static String generateToken(User user) {
+        return generateToken(user, Instant.now());
+    }
+
+    // Issued no earlier than notBefore, e.g. the cut-off of a revocation the token must survive
+    public static String generateToken(User user, Instant notBefore) {
+        Instant now = Instant.now();
+        Instant issuedAt = notBefore.isAfter(now) ? notBefore : now;
         return JWT.create()
                 .withSubject(user.getId().toString())
                 .withClaim("email", user.getEmail())
                 .withClaim("role", user.getRole().name())
-                .withIssuedAt(new Date())
-                .withExpiresAt(new Date(System.currentTimeMillis() + TOKEN_EXPIRATION))
+                .withIssuedAt(Date.from(issuedAt))
+                .withExpiresAt(new Date(now.toEpochMilli() + TOKEN_EXPIRATION))
                 .sign(algorithm);
     }
 
@@ -38,13 +61,35 @@ public class SecurityUtils {
         return verifier.verify(token);
     }
 
+    // Verifies the signature at most once per token while its claims are cached.
+    // Throws JWTVerificationException like verifyToken for invalid, expired or revoked tokens.
+    public static AuthPrincipal authenticate(String token) {
+        String digest = digest(token);
+        AuthPrincipal principal = verifiedTokens.get(digest, () -> AuthPrincipal.from(verifyToken(token)));
+        if (principal.isExpired(Instant.now())) {
+            verifiedTokens.invalidate(digest);
+            throw new TokenExpiredException("The Token has expired on " + principal.getExpiresAt() + ".", principal.getExpiresAt());
+        }
+        if (TokenRevocationList.isRevoked(principal.getUserId(), principal.getIssuedAt())) {
+            throw new JWTVerificationException("The Token has been revoked.");
+        }
+        return principal;
+    }
+
     public static Long getUserIdFromToken(String token) {
-        DecodedJWT jwt = verifyToken(token);
-        return Long.parseLong(jwt.getSubject());
+        return authenticate(token).getUserId();
     }
 
     public static User.UserRole getRoleFromToken(String token) {
-        DecodedJWT jwt = verifyToken(token);
-        return User.UserRole.valueOf(jwt.getClaim("role").asString());
+        return authenticate(token).getRole();
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 } 
\ No newline at end of file
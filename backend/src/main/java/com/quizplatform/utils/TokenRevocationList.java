@@ -0,0 +1,125 @@
+package com.quizplatform.utils;
+
+import com.quizplatform.repositories.TokenRevocationRepository;
+import com.quizplatform.repositories.UnitOfWork;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// In-memory mirror of the token_revocations table. Lookups check a Bloom filter first, so the
+// common case of a user without revocations costs a few hash probes and no database round trip;
+// filter positives are confirmed against the exact cut-off map. Local revocations apply as soon as
+// they commit; revocations made by other instances are picked up by a poll for recent rows, so they
+// take effect here within POLL_INTERVAL. A full rebuild drops revocations past the retention.
+public final class TokenRevocationList {
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationList.class);
+    public static final Duration POLL_INTERVAL = Duration.ofSeconds(5);
+    // revoked_before is stamped before the revoking transaction commits, so a poll looks back far
+    // enough to catch rows that committed late or came from an instance with a lagging clock
+    private static final Duration POLL_LOOKBACK = Duration.ofMinutes(2);
+    private static final Duration REBUILD_INTERVAL = Duration.ofMinutes(10);
+    // Tokens live 24 hours, so older revocations can no longer match a valid token
+    private static final Duration RETENTION = Duration.ofHours(25);
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private static final TokenRevocationRepository repository = new TokenRevocationRepository();
+    private static volatile Snapshot snapshot = Snapshot.of(Map.of());
+    private static ScheduledExecutorService scheduler;
+
+    private TokenRevocationList() {}
+
+    public static synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        rebuild();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "token-revocations");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long poll = POLL_INTERVAL.toSeconds();
+        scheduler.scheduleWithFixedDelay(TokenRevocationList::poll, poll, poll, TimeUnit.SECONDS);
+        long rebuild = REBUILD_INTERVAL.toSeconds();
+        scheduler.scheduleWithFixedDelay(TokenRevocationList::rebuild, rebuild, rebuild, TimeUnit.SECONDS);
+    }
+
+    public static boolean isRevoked(long userId, Instant issuedAt) {
+        Snapshot current = snapshot;
+        if (!current.filter.mightContain(userId)) {
+            return false;
+        }
+        Instant revokedBefore = current.revokedBefore.get(userId);
+        return revokedBefore != null && (issuedAt == null || issuedAt.isBefore(revokedBefore));
+    }
+
+    // Rejects every token of the user issued up to now. Stored with the current request's
+    // transaction; this instance starts rejecting the tokens once it commits. Returns the cut-off,
+    // the earliest iat a replacement token may carry.
+    public static Instant revokeUser(Long userId, String reason) {
+        // JWT iat has second precision, so the cut-off is the start of the next second: a token issued
+        // earlier in the current second has an iat below it too
+        Instant revokedBefore = Instant.now().truncatedTo(ChronoUnit.SECONDS).plusSeconds(1);
+        repository.revokeUser(userId, revokedBefore, reason);
+        UnitOfWork.afterCommit(() -> merge(Map.of(userId, revokedBefore)));
+        return revokedBefore;
+    }
+
+    // Only reads rows revoked within the lookback, which the revoked_before index serves
+    static void poll() {
+        try {
+            merge(repository.findRevokedSince(Instant.now().minus(POLL_LOOKBACK)));
+        } catch (RuntimeException e) {
+            log.warn("Poll failed, keeping previous revocation list: {}", e.getMessage());
+        }
+    }
+
+    static void rebuild() {
+        try {
+            Instant horizon = Instant.now().minus(RETENTION);
+            repository.deleteRevokedBefore(horizon);
+            Map<Long, Instant> revocations = repository.findRevokedSince(horizon);
+            // Keep local revocations that committed while the query ran
+            merge(revocations, horizon);
+        } catch (RuntimeException e) {
+            log.warn("Rebuild failed, keeping previous revocation list: {}", e.getMessage());
+        }
+    }
+
+    private static void merge(Map<Long, Instant> revocations) {
+        merge(revocations, Instant.now().minus(RETENTION));
+    }
+
+    private static synchronized void merge(Map<Long, Instant> revocations, Instant horizon) {
+        Map<Long, Instant> merged = new HashMap<>(revocations);
+        snapshot.revokedBefore.forEach((userId, revokedBefore) -> {
+            if (revokedBefore.isAfter(horizon)) {
+                merged.merge(userId, revokedBefore, (a, b) -> a.isAfter(b) ? a : b);
+            }
+        });
+        snapshot = Snapshot.of(merged);
+    }
+
+    private static final class Snapshot {
+        final BloomFilter filter;
+        final Map<Long, Instant> revokedBefore;
+
+        private Snapshot(BloomFilter filter, Map<Long, Instant> revokedBefore) {
+            this.filter = filter;
+            this.revokedBefore = revokedBefore;
+        }
+
+        static Snapshot of(Map<Long, Instant> revokedBefore) {
+            BloomFilter filter = new BloomFilter(Math.max(1024, revokedBefore.size() * 2), FALSE_POSITIVE_RATE);
+            revokedBefore.keySet().forEach(filter::add);
+            return new Snapshot(filter, Map.copyOf(revokedBefore));
+        }
+    }
+}
@@ -0,0 +1,10 @@
+-- Keep only the newest answer per (submission, question) before enforcing uniqueness
+DELETE FROM submission_answers a
+USING submission_answers b
+WHERE a.submission_id = b.submission_id
+  AND a.question_id = b.question_id
+  AND a.id < b.id;
+
+-- One answer row per question in a submission; also the conflict target for answer upserts
+ALTER TABLE submission_answers
+    ADD CONSTRAINT uq_submission_answers_submission_question UNIQUE (submission_id, question_id);
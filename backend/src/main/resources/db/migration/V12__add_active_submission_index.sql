@@ -0,0 +1,17 @@
+-- Starting a quiz used to open a new submission every time. Keep the newest open submission per
+-- (student, quiz) and close the abandoned ones before enforcing uniqueness; their rows and answers stay.
+UPDATE quiz_submissions SET completed_at = started_at, updated_at = CURRENT_TIMESTAMP
+WHERE id IN (
+    SELECT id FROM (
+        SELECT id, ROW_NUMBER() OVER (PARTITION BY student_id, quiz_id ORDER BY id DESC) AS rn
+        FROM quiz_submissions
+        WHERE completed_at IS NULL
+    ) ranked
+    WHERE rn > 1
+);
+
+-- At most one open attempt per student and quiz; also serves the active submission lookup
+CREATE UNIQUE INDEX uq_quiz_submissions_active ON quiz_submissions(student_id, quiz_id) WHERE completed_at IS NULL;
+
+-- Latest submission of a student for a quiz
+CREATE INDEX idx_quiz_submissions_student_quiz ON quiz_submissions(student_id, quiz_id, submitted_at DESC);
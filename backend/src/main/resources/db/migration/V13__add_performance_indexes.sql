@@ -0,0 +1,16 @@
+-- Indexes for the repository hot paths. Covered elsewhere:
+--   quiz_submissions(student_id ...)      -> idx_quiz_submissions_student_quiz (V12)
+--   submission_answers(submission_id ...) -> uq_submission_answers_submission_question (V11)
+
+-- Quiz lists: instructor dashboard and published catalog, both keyset-paged by id
+CREATE INDEX IF NOT EXISTS idx_quizzes_instructor_id ON quizzes(instructor_id, id);
+CREATE INDEX IF NOT EXISTS idx_quizzes_published ON quizzes(id) WHERE is_published = true;
+
+-- Question loading in quiz order; points included so the summary aggregate is index-only
+CREATE INDEX IF NOT EXISTS idx_questions_quiz_order ON questions(quiz_id, question_order) INCLUDE (points);
+
+-- Answers of a question in display order
+CREATE INDEX IF NOT EXISTS idx_answers_question_order ON answers(question_id, answer_order);
+
+-- Attempts, report and analytics of a quiz, keyset-paged newest first
+CREATE INDEX IF NOT EXISTS idx_quiz_submissions_quiz_id ON quiz_submissions(quiz_id, id);
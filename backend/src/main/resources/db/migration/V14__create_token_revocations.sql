@@ -0,0 +1,12 @@
+-- Tokens of a user issued before revoked_before are rejected. One row per user: revoking again
+-- only moves the cut-off forward. No foreign key, so revocations outlive deleted users.
+-- revoked_before is compared with JWT iat, an absolute instant, so it must not depend on time zones.
+CREATE TABLE token_revocations (
+    user_id BIGINT PRIMARY KEY,
+    revoked_before TIMESTAMPTZ NOT NULL,
+    reason VARCHAR(50) NOT NULL,
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Rebuilds only load revocations that can still match an unexpired token
+CREATE INDEX idx_token_revocations_revoked_before ON token_revocations(revoked_before);
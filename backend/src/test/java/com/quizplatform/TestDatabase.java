@@ -0,0 +1,45 @@
+package com.quizplatform;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import java.io.IOException;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Assumptions;
+
+// One embedded PostgreSQL per test JVM, migrated with the application's Flyway scripts and installed
+// as Main's data source, so repositories run against it exactly as they do against the real pool.
+// PostgreSQL refuses to start as root; tests using it are skipped there instead of failing.
+public final class TestDatabase {
+    private static HikariDataSource pool;
+
+    private TestDatabase() {}
+
+    public static synchronized DataSource start() {
+        Assumptions.assumeFalse("root".equals(System.getProperty("user.name")),
+            "embedded PostgreSQL cannot run as root");
+        if (pool == null) {
+            EmbeddedPostgres postgres;
+            try {
+                postgres = EmbeddedPostgres.builder().start();
+            } catch (IOException e) {
+                throw new RuntimeException("Error starting embedded PostgreSQL", e);
+            }
+            HikariConfig config = new HikariConfig();
+            config.setJdbcUrl(postgres.getJdbcUrl("postgres", "postgres") + "&reWriteBatchedInserts=true");
+            config.setMaximumPoolSize(10);
+            pool = new HikariDataSource(config);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                pool.close();
+                try {
+                    postgres.close();
+                } catch (IOException e) {
+                    // The JVM is exiting; the data directory is temporary anyway
+                }
+            }));
+            Main.migrate(pool);
+            Main.useDataSource(pool);
+        }
+        return pool;
+    }
+}
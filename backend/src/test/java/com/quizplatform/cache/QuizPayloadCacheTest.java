@@ -0,0 +1,41 @@
+package com.quizplatform.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.quizplatform.models.Quiz;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.Test;
+
+class QuizPayloadCacheTest {
+    @Test
+    void etagComesFromUpdatedAt() {
+        Quiz quiz = new Quiz();
+        quiz.setId(7L);
+        quiz.setUpdatedAt(LocalDateTime.of(2024, 3, 1, 10, 0, 0, 123_456_000));
+
+        String etag = QuizPayloadCache.etag(quiz, bytes("{}"));
+
+        assertEquals(etag, QuizPayloadCache.etag(quiz, bytes("{\"title\":\"other\"}")));
+        quiz.setUpdatedAt(quiz.getUpdatedAt().plusNanos(1_000));
+        assertNotEquals(etag, QuizPayloadCache.etag(quiz, bytes("{}")));
+    }
+
+    @Test
+    void etagWithoutUpdatedAtHashesPayload() {
+        Quiz quiz = new Quiz();
+        quiz.setId(7L);
+
+        String etag = QuizPayloadCache.etag(quiz, bytes("{\"title\":\"a\"}"));
+
+        assertTrue(etag.matches("\"q7-h[0-9a-f]{16}\""), etag);
+        assertEquals(etag, QuizPayloadCache.etag(quiz, bytes("{\"title\":\"a\"}")));
+        assertNotEquals(etag, QuizPayloadCache.etag(quiz, bytes("{\"title\":\"b\"}")));
+    }
+
+    private static byte[] bytes(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,119 @@
+package com.quizplatform.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTest {
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void stopExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void waitersShareTheLoaderException() throws Exception {
+        SingleFlight<String, String> flights = new SingleFlight<>();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("load failed");
+
+        Future<String> loader = executor.submit(() -> flights.load("k", () -> {
+            loading.countDown();
+            await(release);
+            throw failure;
+        }));
+        await(loading);
+        Future<String> waiter = executor.submit(() -> flights.load("k", () -> "unused"));
+        awaitCoalesced(flights, 1);
+        release.countDown();
+
+        assertSame(failure, assertThrows(ExecutionException.class, () -> loader.get(5, TimeUnit.SECONDS)).getCause());
+        assertSame(failure, assertThrows(ExecutionException.class, () -> waiter.get(5, TimeUnit.SECONDS)).getCause());
+        assertEquals(0, flights.getInFlight());
+    }
+
+    // After forget, a new caller runs its own loader; the forgotten load still completes for its waiters
+    @Test
+    void forgetStartsAFreshLoad() throws Exception {
+        SingleFlight<String, String> flights = new SingleFlight<>();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> stale = executor.submit(() -> flights.load("k", () -> {
+            loading.countDown();
+            await(release);
+            return "stale";
+        }));
+        await(loading);
+        flights.forget("k");
+
+        assertEquals("fresh", flights.load("k", () -> "fresh"));
+        release.countDown();
+        assertEquals("stale", stale.get(5, TimeUnit.SECONDS));
+        assertEquals(2, flights.getLoads());
+        assertEquals(0, flights.getCoalesced());
+    }
+
+    // The forgotten load finishing must not remove the flight that replaced it
+    @Test
+    void forgottenLoadLeavesItsReplacementInFlight() throws Exception {
+        SingleFlight<String, String> flights = new SingleFlight<>();
+        CountDownLatch staleLoading = new CountDownLatch(1);
+        CountDownLatch staleRelease = new CountDownLatch(1);
+        CountDownLatch freshLoading = new CountDownLatch(1);
+        CountDownLatch freshRelease = new CountDownLatch(1);
+
+        Future<String> stale = executor.submit(() -> flights.load("k", () -> {
+            staleLoading.countDown();
+            await(staleRelease);
+            return "stale";
+        }));
+        await(staleLoading);
+        flights.forget("k");
+        Future<String> fresh = executor.submit(() -> flights.load("k", () -> {
+            freshLoading.countDown();
+            await(freshRelease);
+            return "fresh";
+        }));
+        await(freshLoading);
+
+        staleRelease.countDown();
+        assertEquals("stale", stale.get(5, TimeUnit.SECONDS));
+        assertEquals(1, flights.getInFlight());
+
+        Future<String> joined = executor.submit(() -> flights.load("k", () -> "unused"));
+        awaitCoalesced(flights, 1);
+        freshRelease.countDown();
+        assertEquals("fresh", fresh.get(5, TimeUnit.SECONDS));
+        assertEquals("fresh", joined.get(5, TimeUnit.SECONDS));
+    }
+
+    private static void awaitCoalesced(SingleFlight<?, ?> flights, long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (flights.getCoalesced() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(expected, flights.getCoalesced());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS), "timed out");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+}
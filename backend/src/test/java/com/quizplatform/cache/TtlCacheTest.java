@@ -0,0 +1,147 @@
+package com.quizplatform.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+// The races are staged with latches: a load is held open while the test invalidates or piles on
+class TtlCacheTest {
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void stopExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void loadRacingInvalidationIsReturnedButNotStored() throws Exception {
+        TtlCache<String, String> cache = cache("racingInvalidation");
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> stale = executor.submit(() -> cache.get("k", () -> {
+            loading.countDown();
+            await(release);
+            return "stale";
+        }));
+        await(loading);
+        cache.invalidate("k");
+        release.countDown();
+
+        assertEquals("stale", stale.get(5, TimeUnit.SECONDS));
+        assertEquals("fresh", cache.get("k", () -> "fresh"));
+    }
+
+    // A caller arriving after the invalidation must not join the load that started before it
+    @Test
+    void callerAfterInvalidationStartsItsOwnLoad() throws Exception {
+        TtlCache<String, String> cache = cache("freshLoadAfterInvalidation");
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> stale = executor.submit(() -> cache.get("k", () -> {
+            loading.countDown();
+            await(release);
+            return "stale";
+        }));
+        await(loading);
+        cache.invalidate("k");
+
+        assertEquals("fresh", cache.get("k", () -> "fresh"));
+        release.countDown();
+        assertEquals("stale", stale.get(5, TimeUnit.SECONDS));
+        assertEquals("fresh", cache.get("k", () -> "reloaded"));
+    }
+
+    @Test
+    void invalidateAllDropsLoadsInFlight() throws Exception {
+        TtlCache<String, String> cache = cache("racingInvalidateAll");
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> stale = executor.submit(() -> cache.get("k", () -> {
+            loading.countDown();
+            await(release);
+            return "stale";
+        }));
+        await(loading);
+        cache.invalidateAll();
+        release.countDown();
+
+        assertEquals("stale", stale.get(5, TimeUnit.SECONDS));
+        assertEquals("fresh", cache.get("k", () -> "fresh"));
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        int callers = 8;
+        TtlCache<String, String> cache = cache("sharedLoad");
+        AtomicInteger loaderCalls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            results.add(executor.submit(() -> cache.get("k", () -> {
+                loaderCalls.incrementAndGet();
+                await(release);
+                return "value";
+            })));
+        }
+        // Every caller but the loader has joined the flight
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while ((long) cache.stats().get("coalescedLoads") < callers - 1 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertEquals("value", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loaderCalls.get());
+        assertEquals(1L, cache.stats().get("loads"));
+    }
+
+    @Test
+    void expiredEntryIsReloaded() throws Exception {
+        TtlCache<String, String> cache = new TtlCache<>("test.expiry", 10, Duration.ofMillis(20));
+        cache.get("k", () -> "first");
+        Thread.sleep(40);
+
+        assertEquals("second", cache.get("k", () -> "second"));
+    }
+
+    @Test
+    void sizeIsBounded() {
+        TtlCache<Integer, Integer> cache = new TtlCache<>("test.bounded", 10, Duration.ofMinutes(1));
+        for (int i = 0; i < 100; i++) {
+            cache.put(i, i);
+        }
+
+        assertTrue((int) cache.stats().get("size") <= 10);
+        assertEquals(99, cache.get(99, () -> -1));
+    }
+
+    private static TtlCache<String, String> cache(String name) {
+        return new TtlCache<>("test." + name, 100, Duration.ofMinutes(1));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS), "timed out");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.quizplatform.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.quizplatform.TestDatabase;
+import com.quizplatform.models.Quiz;
+import com.quizplatform.models.User;
+import com.quizplatform.repositories.QuizRepository;
+import com.quizplatform.repositories.UserRepository;
+import com.quizplatform.utils.Json;
+import io.javalin.Javalin;
+import io.javalin.json.JavalinJackson;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+// Conditional GETs of the cached student view over HTTP. Authentication is replaced by two headers
+// that set the attributes Main's access manager would.
+class QuizControllerTest {
+    private static final HttpClient client = HttpClient.newHttpClient();
+
+    private static Javalin app;
+    private static Long instructorId;
+    private static Long studentId;
+
+    @BeforeAll
+    static void startServer() {
+        TestDatabase.start();
+        instructorId = new UserRepository().create(user(User.UserRole.INSTRUCTOR)).getId();
+        studentId = new UserRepository().create(user(User.UserRole.STUDENT)).getId();
+
+        QuizController quizController = new QuizController();
+        app = Javalin.create(config -> config.jsonMapper(new JavalinJackson(Json.MAPPER)))
+            .before(ctx -> {
+                ctx.attribute("userId", Long.valueOf(ctx.header("X-User-Id")));
+                ctx.attribute("userRole", User.UserRole.valueOf(ctx.header("X-Role")));
+            })
+            .get("/api/quizzes/{id}", quizController::getQuiz)
+            .put("/api/quizzes/{id}", quizController::updateQuiz)
+            .start(0);
+    }
+
+    @AfterAll
+    static void stopServer() {
+        if (app != null) {
+            app.stop();
+        }
+    }
+
+    @Test
+    void unchangedQuizIsNotModified() throws Exception {
+        Long quizId = createQuiz("Round trip");
+
+        HttpResponse<String> first = send(get(quizId, student()));
+        String etag = first.headers().firstValue("ETag").orElseThrow();
+        assertEquals(200, first.statusCode());
+        assertTrue(first.body().contains("Round trip"));
+
+        HttpResponse<String> second = send(get(quizId, student()).header("If-None-Match", etag));
+        assertEquals(304, second.statusCode());
+        assertEquals("", second.body());
+        assertEquals(etag, second.headers().firstValue("ETag").orElseThrow());
+    }
+
+    // The edit drops the cached payload, so the old tag no longer matches and the new title is served
+    @Test
+    void updateInvalidatesEtag() throws Exception {
+        Long quizId = createQuiz("Before edit");
+        String etag = send(get(quizId, student())).headers().firstValue("ETag").orElseThrow();
+
+        HttpRequest update = HttpRequest.newBuilder(uri(quizId))
+            .header("X-User-Id", instructorId.toString())
+            .header("X-Role", User.UserRole.INSTRUCTOR.name())
+            .PUT(HttpRequest.BodyPublishers.ofString(
+                "{\"title\":\"After edit\",\"description\":\"" + description() + "\",\"timeLimit\":30,\"isPublished\":true}"))
+            .build();
+        assertEquals(200, send(update).statusCode());
+
+        HttpResponse<String> after = send(get(quizId, student()).header("If-None-Match", etag));
+        assertEquals(200, after.statusCode());
+        assertNotEquals(etag, after.headers().firstValue("ETag").orElseThrow());
+        assertTrue(after.body().contains("After edit"));
+    }
+
+    // Each coding has its own tag; a client holding the identity body must not get a 304 for gzip
+    @Test
+    void compressedVariantHasItsOwnEtag() throws Exception {
+        Long quizId = createQuiz("Encodings");
+        String identityTag = send(get(quizId, student())).headers().firstValue("ETag").orElseThrow();
+
+        HttpResponse<String> gzip = send(get(quizId, student()).header("Accept-Encoding", "gzip"));
+        String gzipTag = gzip.headers().firstValue("ETag").orElseThrow();
+        assertEquals("gzip", gzip.headers().firstValue("Content-Encoding").orElseThrow());
+        assertEquals(identityTag.substring(0, identityTag.length() - 1) + "-gz\"", gzipTag);
+
+        assertEquals(200, send(get(quizId, student()).header("Accept-Encoding", "gzip").header("If-None-Match", identityTag)).statusCode());
+        assertEquals(304, send(get(quizId, student()).header("Accept-Encoding", "gzip").header("If-None-Match", gzipTag)).statusCode());
+        assertEquals(304, send(get(quizId, student()).header("If-None-Match", gzipTag + ", " + identityTag)).statusCode());
+    }
+
+    private static Long createQuiz(String title) {
+        Quiz quiz = new Quiz();
+        quiz.setTitle(title);
+        quiz.setDescription(description());
+        quiz.setInstructorId(instructorId);
+        quiz.setTimeLimit(30);
+        quiz.setIsPublished(true);
+        return new QuizRepository().create(quiz).getId();
+    }
+
+    // Long enough for the payload to be worth compressing
+    private static String description() {
+        return "Conditional request fixture. ".repeat(50);
+    }
+
+    private static HttpRequest.Builder get(Long quizId, String[] identity) {
+        return HttpRequest.newBuilder(uri(quizId)).headers(identity).GET();
+    }
+
+    private static String[] student() {
+        return new String[] { "X-User-Id", studentId.toString(), "X-Role", User.UserRole.STUDENT.name() };
+    }
+
+    private static URI uri(Long quizId) {
+        return URI.create("http://localhost:" + app.port() + "/api/quizzes/" + quizId);
+    }
+
+    private static HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return send(request.build());
+    }
+
+    private static HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static User user(User.UserRole role) {
+        User user = new User();
+        user.setEmail(role.name().toLowerCase() + "-" + UUID.randomUUID() + "@example.com");
+        user.setPassword("hash");
+        user.setFirstName("Ada");
+        user.setLastName("Lovelace");
+        user.setRole(role);
+        return user;
+    }
+}
@@ -0,0 +1,107 @@
+package com.quizplatform.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.quizplatform.TestDatabase;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import org.jdbi.v3.core.statement.Query;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+
+// Query-plan regression check: EXPLAINs the repositories' own SQL, with parameters bound the way
+// the repositories bind them, and fails when a hot query would scan one of the large tables.
+// Sequential scans are disabled for the transaction, so the planner only picks one when no index
+// can serve the query; that holds on the empty test database as it would on a large one.
+class QueryPlanTest {
+    private static final Set<String> LARGE_TABLES = Set.of(
+        "quizzes", "questions", "answers", "quiz_submissions", "submission_answers", "users", "token_revocations");
+
+    @BeforeAll
+    static void startDatabase() {
+        TestDatabase.start();
+    }
+
+    @TestFactory
+    List<DynamicTest> hotQueriesUseIndexes() {
+        List<DynamicTest> tests = new ArrayList<>();
+        Keyset quizPage = Keyset.ascending("id", 100L, 51);
+        Keyset summaryPage = Keyset.ascending("qz.id", 100L, 51);
+        Keyset submissionPage = Keyset.descending("id", 1000L, 51);
+        Keyset userPage = Keyset.ascending("id", 100L, 51);
+
+        add(tests, "QuizRepository.findById", QuizRepository.SELECT_BY_ID_SQL, q -> q.bind("id", 1L));
+        add(tests, "QuizRepository.findByInstructorId", QuizRepository.byInstructorSql(quizPage),
+            q -> quizPage.bind(q.bind("instructorId", 1L)));
+        add(tests, "QuizRepository.findPublishedQuizzes", QuizRepository.publishedSql(quizPage), quizPage::bind);
+        add(tests, "QuizRepository.findSummariesByInstructorId",
+            QuizRepository.summariesSql(QuizRepository.INSTRUCTOR_SUMMARY_CONDITION, summaryPage),
+            q -> summaryPage.bind(q.bind("param", 1L)));
+        add(tests, "QuizRepository.findPublishedSummaries",
+            QuizRepository.summariesSql(QuizRepository.PUBLISHED_SUMMARY_CONDITION, summaryPage), summaryPage::bind);
+        add(tests, "QuizRepository.hasSubmissions", QuizRepository.HAS_SUBMISSIONS_SQL, q -> q.bind("quizId", 1L));
+        add(tests, "QuizRepository.delete (submission answers)", QuizRepository.DELETE_SUBMISSION_ANSWERS_SQL, q -> q.bind("id", 1L));
+        add(tests, "QuizRepository.delete (answers)", QuizRepository.DELETE_ANSWERS_SQL, q -> q.bind("id", 1L));
+        add(tests, "QuestionRepository.findByQuizIds", QuestionRepository.QUESTIONS_BY_QUIZ_IDS_SQL,
+            q -> q.bindArray("quizIds", Long.class, List.of(1L, 2L, 3L)));
+        add(tests, "AnswerRepository.findByQuestionId", AnswerRepository.BY_QUESTION_SQL, q -> q.bind("questionId", 1L));
+        add(tests, "QuizSubmissionRepository.findByQuizId", QuizSubmissionRepository.BY_QUIZ_SQL, q -> q.bind("quizId", 1L));
+        add(tests, "QuizSubmissionRepository.findByQuizId (page)", QuizSubmissionRepository.byQuizPageSql(submissionPage),
+            q -> submissionPage.bind(q.bind("quizId", 1L)));
+        add(tests, "QuizSubmissionRepository.findAnalytics", QuizSubmissionRepository.ANALYTICS_SQL, q -> q.bind("quizId", 1L));
+        add(tests, "QuizSubmissionRepository.findByStudentId", QuizSubmissionRepository.BY_STUDENT_SQL, q -> q.bind("studentId", 1L));
+        add(tests, "QuizSubmissionRepository.findActiveSubmission", QuizSubmissionRepository.ACTIVE_SUBMISSION_SQL,
+            q -> q.bind("studentId", 1L).bind("quizId", 1L));
+        add(tests, "QuizSubmissionRepository.findLatestByStudentAndQuiz", QuizSubmissionRepository.LATEST_SUBMISSION_SQL,
+            q -> q.bind("studentId", 1L).bind("quizId", 1L));
+        add(tests, "QuizSubmissionRepository.attachAnswers", QuizSubmissionRepository.SELECT_ANSWERS_SQL,
+            q -> q.bindArray("ids", Long.class, List.of(1L, 2L, 3L)));
+        add(tests, "QuizSubmissionRepository.update (stale answers)", QuizSubmissionRepository.DELETE_STALE_ANSWERS_SQL,
+            q -> q.bind("submissionId", 1L).bindArray("answered", Long.class, List.of(1L, 2L)));
+        add(tests, "UserRepository.findById", UserRepository.BY_ID_SQL, q -> q.bind("id", 1L));
+        add(tests, "UserRepository.findByEmail", UserRepository.BY_EMAIL_SQL, q -> q.bind("email", "student@example.com"));
+        add(tests, "UserRepository.findAll (page)", UserRepository.pageSql(userPage), userPage::bind);
+        add(tests, "TokenRevocationRepository.findRevokedSince", TokenRevocationRepository.REVOKED_SINCE_SQL,
+            q -> q.bind("since", OffsetDateTime.now()));
+        return tests;
+    }
+
+    private static void add(List<DynamicTest> tests, String name, String sql, Consumer<Query> binder) {
+        tests.add(DynamicTest.dynamicTest(name, () -> {
+            String plan = explain(sql, binder);
+            assertNull(findLargeTableSeqScan(plan), () -> name + " plans a sequential scan:\n" + plan);
+        }));
+    }
+
+    private static String explain(String sql, Consumer<Query> binder) {
+        UnitOfWork.begin();
+        try {
+            return JdbiRepository.jdbi.withHandle(handle -> {
+                handle.execute("SET LOCAL enable_seqscan = off");
+                Query query = handle.createQuery("EXPLAIN " + sql);
+                binder.accept(query);
+                return String.join("\n", query.mapTo(String.class).list());
+            });
+        } finally {
+            UnitOfWork.end(false);
+        }
+    }
+
+    private static String findLargeTableSeqScan(String plan) {
+        for (String line : plan.split("\n")) {
+            int at = line.indexOf("Seq Scan on ");
+            if (at < 0) {
+                continue;
+            }
+            String table = line.substring(at + "Seq Scan on ".length()).split("[ (]")[0];
+            if (LARGE_TABLES.contains(table)) {
+                return line.trim();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,86 @@
+package com.quizplatform.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.quizplatform.TestDatabase;
+import com.quizplatform.models.Answer;
+import com.quizplatform.models.Question;
+import com.quizplatform.models.Quiz;
+import com.quizplatform.models.User;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class QuizRepositoryTest {
+    private static final int QUIZZES = 5;
+    private static final int QUESTIONS_PER_QUIZ = 4;
+
+    private static Long instructorId;
+    private final QuizRepository quizRepository = new QuizRepository();
+
+    @BeforeAll
+    static void createQuizzes() {
+        TestDatabase.start();
+        User instructor = new User();
+        instructor.setEmail("instructor-" + UUID.randomUUID() + "@example.com");
+        instructor.setPassword("hash");
+        instructor.setFirstName("Ada");
+        instructor.setLastName("Lovelace");
+        instructor.setRole(User.UserRole.INSTRUCTOR);
+        instructorId = new UserRepository().create(instructor).getId();
+
+        QuizRepository quizRepository = new QuizRepository();
+        for (int q = 0; q < QUIZZES; q++) {
+            Quiz quiz = new Quiz();
+            quiz.setTitle("Quiz " + q);
+            quiz.setDescription("Query budget fixture");
+            quiz.setInstructorId(instructorId);
+            quiz.setTimeLimit(30);
+            quiz.setIsPublished(true);
+            List<Question> questions = new ArrayList<>();
+            for (int i = 0; i < QUESTIONS_PER_QUIZ; i++) {
+                Question question = new Question();
+                question.setQuestionText("Question " + i);
+                question.setType(Question.QuestionType.MULTIPLE_CHOICE);
+                question.setPoints(1);
+                question.setAnswers(List.of(answer("Right", true), answer("Wrong", false)));
+                questions.add(question);
+            }
+            quiz.setQuestions(questions);
+            quizRepository.create(quiz);
+        }
+    }
+
+    // Quizzes, questions and answers load in two statements however many quizzes the instructor has;
+    // a regression to per-quiz or per-question loading shows up here as N+1 statements
+    @Test
+    void instructorQuizListRunsTwoStatements() {
+        List<Quiz> quizzes = new ArrayList<>();
+        QueryStats stats = QueryStats.assertMaxQueries(2, () -> quizzes.addAll(quizRepository.findByInstructorId(instructorId)));
+
+        assertEquals(2, stats.getStatements());
+        assertEquals(QUIZZES, quizzes.size());
+        for (Quiz quiz : quizzes) {
+            assertEquals(QUESTIONS_PER_QUIZ, quiz.getQuestions().size());
+            assertEquals(2, quiz.getQuestions().get(0).getAnswers().size());
+        }
+    }
+
+    @Test
+    void quizWithAnswersRunsTwoStatements() {
+        Long quizId = quizRepository.findByInstructorId(instructorId).get(0).getId();
+
+        QueryStats stats = QueryStats.assertMaxQueries(2, () -> quizRepository.findByIdWithAnswers(quizId));
+
+        assertEquals(2, stats.getStatements());
+    }
+
+    private static Answer answer(String text, boolean correct) {
+        Answer answer = new Answer();
+        answer.setAnswerText(text);
+        answer.setIsCorrect(correct);
+        return answer;
+    }
+}
@@ -0,0 +1,149 @@
+package com.quizplatform.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.quizplatform.TestDatabase;
+import com.quizplatform.models.Question;
+import com.quizplatform.models.Quiz;
+import com.quizplatform.models.QuizAnalytics;
+import com.quizplatform.models.QuizSubmission;
+import com.quizplatform.models.User;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class QuizSubmissionRepositoryTest {
+    private static final LocalDateTime START = LocalDateTime.of(2024, 3, 1, 10, 0);
+
+    private static Long quizId;
+    private static Long studentId;
+    private final QuizSubmissionRepository submissionRepository = new QuizSubmissionRepository();
+
+    @BeforeAll
+    static void createQuiz() {
+        TestDatabase.start();
+        Long instructorId = new UserRepository().create(user(User.UserRole.INSTRUCTOR)).getId();
+        studentId = new UserRepository().create(user(User.UserRole.STUDENT)).getId();
+        Quiz quiz = new Quiz();
+        quiz.setTitle("Analytics");
+        quiz.setDescription("Submission fixture");
+        quiz.setInstructorId(instructorId);
+        quiz.setTimeLimit(30);
+        quiz.setIsPublished(true);
+        quizId = new QuizRepository().create(quiz).getId();
+    }
+
+    // Averages over every attempt, time spent over completed ones only, in whole minutes
+    @Test
+    void analyticsAggregateSubmissions() {
+        Long analyticsQuizId = new QuizRepository().create(copyOfQuiz()).getId();
+        submissionRepository.create(submission(analyticsQuizId, 8, START.plusMinutes(12).plusSeconds(30)));
+        submissionRepository.create(submission(analyticsQuizId, 4, START.plusMinutes(5).plusSeconds(59)));
+        submissionRepository.create(submission(analyticsQuizId, 0, null));
+
+        QuizAnalytics analytics = submissionRepository.findAnalytics(analyticsQuizId);
+
+        assertEquals(3, analytics.getTotalAttempts());
+        assertEquals(4.0, analytics.getAverageScore(), 1e-9);
+        assertEquals(2.0 / 3, analytics.getCompletionRate(), 1e-9);
+        assertEquals(8.5, analytics.getAverageTimeSpentMinutes(), 1e-9);
+    }
+
+    @Test
+    void analyticsOfQuizWithoutSubmissions() {
+        QuizAnalytics analytics = submissionRepository.findAnalytics(quizId);
+
+        assertEquals(0, analytics.getTotalAttempts());
+        assertEquals(0.0, analytics.getAverageScore());
+        assertEquals(0.0, analytics.getCompletionRate());
+    }
+
+    @Test
+    void updateReplacesChangedAnswersAndDropsUnanswered() {
+        Quiz quiz = quizWithQuestions(2);
+        List<Long> questionIds = quiz.getQuestions().stream().map(Question::getId).toList();
+        QuizSubmission submission = submission(quiz.getId(), 0, null);
+        submission.setAnswers(new HashMap<>(Map.of(questionIds.get(0), "first", questionIds.get(1), "second")));
+        submissionRepository.create(submission);
+
+        submission.setAnswers(new HashMap<>(Map.of(questionIds.get(0), "changed")));
+        submissionRepository.update(submission);
+
+        assertEquals(Map.of(questionIds.get(0), "changed"), reload(submission).getAnswers());
+    }
+
+    // Clearing every answer sends an empty map; a null map leaves the stored answers untouched
+    @Test
+    void updateWithEmptyAnswersDeletesAllAnswers() {
+        Quiz quiz = quizWithQuestions(2);
+        List<Long> questionIds = quiz.getQuestions().stream().map(Question::getId).toList();
+        QuizSubmission submission = submission(quiz.getId(), 0, null);
+        submission.setAnswers(new HashMap<>(Map.of(questionIds.get(0), "first", questionIds.get(1), "second")));
+        submissionRepository.create(submission);
+
+        submission.setAnswers(null);
+        submissionRepository.update(submission);
+        assertEquals(2, reload(submission).getAnswers().size());
+
+        submission.setAnswers(new HashMap<>());
+        submissionRepository.update(submission);
+        assertTrue(reload(submission).getAnswers().isEmpty());
+    }
+
+    private QuizSubmission reload(QuizSubmission submission) {
+        return submissionRepository.findById(submission.getId()).orElseThrow();
+    }
+
+    private static Quiz quizWithQuestions(int count) {
+        Quiz quiz = copyOfQuiz();
+        List<Question> questions = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Question question = new Question();
+            question.setQuestionText("Question " + i);
+            question.setType(Question.QuestionType.SHORT_ANSWER);
+            question.setPoints(1);
+            question.setAnswers(List.of());
+            questions.add(question);
+        }
+        quiz.setQuestions(questions);
+        return new QuizRepository().create(quiz);
+    }
+
+    private static Quiz copyOfQuiz() {
+        Quiz quiz = new Quiz();
+        quiz.setTitle("Analytics " + UUID.randomUUID());
+        quiz.setDescription("Submission fixture");
+        quiz.setInstructorId(new QuizRepository().findById(quizId).orElseThrow().getInstructorId());
+        quiz.setTimeLimit(30);
+        quiz.setIsPublished(true);
+        return quiz;
+    }
+
+    private static QuizSubmission submission(Long quizId, int score, LocalDateTime completedAt) {
+        QuizSubmission submission = new QuizSubmission();
+        submission.setQuizId(quizId);
+        submission.setStudentId(studentId);
+        submission.setScore(score);
+        submission.setStartedAt(START);
+        submission.setCompletedAt(completedAt);
+        submission.setSubmittedAt(completedAt);
+        submission.setAnswers(new HashMap<>());
+        return submission;
+    }
+
+    private static User user(User.UserRole role) {
+        User user = new User();
+        user.setEmail(role.name().toLowerCase() + "-" + UUID.randomUUID() + "@example.com");
+        user.setPassword("hash");
+        user.setFirstName("Ada");
+        user.setLastName("Lovelace");
+        user.setRole(role);
+        return user;
+    }
+}
@@ -0,0 +1,88 @@
+package com.quizplatform.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.quizplatform.Main;
+import com.quizplatform.TestDatabase;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class SlowQueryLogTest {
+    @BeforeAll
+    static void startDatabase() {
+        TestDatabase.start();
+    }
+
+    @Test
+    void explainsQueryWithUnredactedBinds() {
+        SlowQueryLog.Entry entry = entry("SELECT * FROM quizzes WHERE id = ?", Map.of(1, 1L));
+
+        assertTrue(SlowQueryLog.explain(entry).contains("Execution Time"));
+    }
+
+    @Test
+    void refusesDataModifyingCte() {
+        SlowQueryLog.Entry entry = entry("WITH gone AS (DELETE FROM quizzes WHERE id = ? RETURNING id) SELECT * FROM gone", Map.of(1, 1L));
+
+        assertThrows(IllegalArgumentException.class, () -> SlowQueryLog.explain(entry));
+    }
+
+    // Raw values are not kept unless SLOW_QUERY_RAW_BINDS=true, so there is nothing faithful to bind
+    @Test
+    void refusesQueryWhoseBindsWereRedacted() {
+        SlowQueryLog.Entry entry = entry("SELECT * FROM users WHERE email = ?", Map.of(1, "student@example.com"));
+
+        assertThrows(IllegalArgumentException.class, () -> SlowQueryLog.explain(entry));
+    }
+
+    // Writes the keyword check cannot see are stopped by the read-only transaction
+    @Test
+    void runsInReadOnlyTransaction() {
+        SlowQueryLog.Entry entry = entry("SELECT nextval('quizzes_id_seq')", Map.of());
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> SlowQueryLog.explain(entry));
+        assertTrue(e.getMessage().contains("read-only"), e.getMessage());
+    }
+
+    // Over the default 200ms threshold
+    private static final String SLOW_SQL = "SELECT g FROM generate_series(1, ?) g, pg_sleep(0.25)";
+
+    @Test
+    void slowQueryIsLoggedWithRowsRead() throws SQLException {
+        try (Connection connection = Main.getDataSource().getConnection();
+             PreparedStatement statement = connection.prepareStatement(SLOW_SQL)) {
+            statement.setInt(1, 3);
+            try (ResultSet rs = statement.executeQuery()) {
+                assertEquals(statement, rs.getStatement());
+                while (rs.next()) {
+                    // Read every row
+                }
+            }
+        }
+
+        SlowQueryLog.Entry entry = SlowQueryLog.entries().stream()
+            .filter(e -> e.getSql().equals(SLOW_SQL))
+            .findFirst()
+            .orElseThrow();
+        assertEquals(3, entry.getRows());
+    }
+
+    @Test
+    void explainIsNotLoggedAsSlowQuery() {
+        SlowQueryLog.explain(entry(SLOW_SQL, Map.of(1, 2)));
+
+        assertFalse(SlowQueryLog.entries().stream().anyMatch(e -> e.getSql().startsWith("EXPLAIN")));
+    }
+
+    private static SlowQueryLog.Entry entry(String sql, Map<Integer, Object> binds) {
+        return new SlowQueryLog.Entry(1, sql, binds, -1, 0);
+    }
+}
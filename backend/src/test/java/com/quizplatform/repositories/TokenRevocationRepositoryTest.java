@@ -0,0 +1,35 @@
+package com.quizplatform.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.quizplatform.TestDatabase;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.TimeZone;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class TokenRevocationRepositoryTest {
+    private final TokenRevocationRepository repository = new TokenRevocationRepository();
+
+    @BeforeAll
+    static void startDatabase() {
+        TestDatabase.start();
+    }
+
+    // Cut-offs are compared with JWT iat, so they must round-trip as the same instant whatever
+    // time zone the writing and the reading JVM run in
+    @Test
+    void revocationInstantDoesNotDependOnJvmTimeZone() {
+        Instant revokedBefore = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        TimeZone original = TimeZone.getDefault();
+        try {
+            TimeZone.setDefault(TimeZone.getTimeZone("America/Los_Angeles"));
+            repository.revokeUser(9001L, revokedBefore, "TEST");
+            TimeZone.setDefault(TimeZone.getTimeZone("Asia/Tokyo"));
+            assertEquals(revokedBefore, repository.findRevokedSince(revokedBefore.minusSeconds(1)).get(9001L));
+        } finally {
+            TimeZone.setDefault(original);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.quizplatform.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.quizplatform.TestDatabase;
+import com.quizplatform.models.User;
+import com.quizplatform.repositories.UnitOfWork;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class TokenRevocationListTest {
+    // Users that exist only in tokens; token_revocations has no foreign key
+    private static final AtomicLong nextUserId = new AtomicLong(700_000);
+
+    @BeforeAll
+    static void startDatabase() {
+        TestDatabase.start();
+    }
+
+    // JWT iat is whole seconds: a token issued earlier in the revoking second has the same iat as the
+    // truncated revocation time and must be rejected too
+    @Test
+    void tokenIssuedInSameSecondAsRevocationIsRevoked() {
+        long userId = nextUserId.incrementAndGet();
+        Instant issuedAt = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+
+        Instant revokedBefore = UnitOfWork.execute(() -> TokenRevocationList.revokeUser(userId, "TEST"));
+
+        assertTrue(revokedBefore.isAfter(issuedAt));
+        assertTrue(TokenRevocationList.isRevoked(userId, issuedAt));
+        assertTrue(TokenRevocationList.isRevoked(userId, revokedBefore.minusSeconds(1)));
+        assertFalse(TokenRevocationList.isRevoked(userId, revokedBefore));
+    }
+
+    @Test
+    void revocationOnlyAppliesOnceCommitted() {
+        long userId = nextUserId.incrementAndGet();
+        Instant issuedAt = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+
+        UnitOfWork.begin();
+        TokenRevocationList.revokeUser(userId, "TEST");
+        assertFalse(TokenRevocationList.isRevoked(userId, issuedAt));
+        UnitOfWork.end(false);
+
+        assertFalse(TokenRevocationList.isRevoked(userId, issuedAt));
+    }
+
+    // The token answered after a password change must survive the revocation it comes with
+    @Test
+    void replacementTokenOutlivesRevocation() {
+        User user = new User();
+        user.setId(nextUserId.incrementAndGet());
+        user.setEmail("student@example.com");
+        user.setRole(User.UserRole.STUDENT);
+        String oldToken = SecurityUtils.generateToken(user);
+
+        Instant revokedBefore = UnitOfWork.execute(() -> TokenRevocationList.revokeUser(user.getId(), "TEST"));
+        String newToken = SecurityUtils.generateToken(user, revokedBefore);
+
+        assertThrows(JWTVerificationException.class, () -> SecurityUtils.authenticate(oldToken));
+        assertEquals(user.getId(), SecurityUtils.authenticate(newToken).getUserId());
+    }
+}
@@ -37,6 +37,18 @@ api.interceptors.response.use(
     }
 );
 
+// List endpoints return one page at a time; follows X-Next-Cursor until the last (empty) cursor
+async function getAllPages<T>(url: string): Promise<T[]> {
+    const items: T[] = [];
+    let cursor: string | undefined;
+    do {
+        const response = await api.get<T[]>(url, { params: cursor ? { cursor } : undefined });
+        items.push(...response.data);
+        cursor = response.headers['x-next-cursor'] || undefined;
+    } while (cursor);
+    return items;
+}
+
 export const authService = {
     login: async (email: string, password: string): Promise<User> => {
         const response = await api.post<AuthResponse>('/api/users/login', { email, password });
@@ -60,7 +72,12 @@ export const authService = {
     },
 
     updateProfile: async (user: User): Promise<User> => {
-        const response = await api.put<User>('/api/users/me', user);
+        // A password change revokes the current session and answers with a new token, like login
+        const response = await api.put<User | AuthResponse>('/api/users/me', user);
+        if ('token' in response.data) {
+            localStorage.setItem('token', response.data.token);
+            return response.data.user;
+        }
         return response.data;
     },
 
@@ -81,8 +98,7 @@ export const quizService = {
     },
 
     getQuizzes: async (): Promise<Quiz[]> => {
-        const response = await api.get<Quiz[]>('/api/quizzes');
-        return response.data;
+        return getAllPages<Quiz>('/api/quizzes');
     },
 
     getQuiz: async (id: number): Promise<Quiz> => {
@@ -91,8 +107,7 @@ export const quizService = {
     },
 
     getQuizAttempts: async (id: number): Promise<QuizSubmission[]> => {
-        const response = await api.get<QuizSubmission[]>(`/api/quizzes/${id}/attempts`);
-        return response.data;
+        return getAllPages<QuizSubmission>(`/api/quizzes/${id}/attempts`);
     },
 
     updateQuiz: async (id: number, quiz: Quiz): Promise<Quiz> => {
@@ -164,7 +179,6 @@ export const quizService = {
     },
 
     getQuizReport: async (quizId: number): Promise<any> => {
-        const response = await api.get(`/api/quizzes/${quizId}/report`);
-        return response.data;
+        return getAllPages<any>(`/api/quizzes/${quizId}/report`);
     },
 };
\ No newline at end of file